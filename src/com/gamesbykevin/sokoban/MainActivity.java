@@ -133,6 +133,10 @@ public class MainActivity extends Activity
     @Override
     public void onPause()
     {
+        //save the progress of the level in play, onPause is always called before the activity is stopped
+        if (getGamePanel() != null)
+            getGamePanel().save();
+        
         super.onPause();
     }
     
@@ -2,11 +2,12 @@ package com.gamesbykevin.sokoban.ai;
 
 import java.util.List;
 
-import com.gamesbykevin.androidframework.resources.Files;
 import com.gamesbykevin.sokoban.assets.Assets;
+import com.gamesbykevin.sokoban.assets.Cache;
 import com.gamesbykevin.sokoban.level.Level;
+import com.gamesbykevin.sokoban.level.LevelHash;
+import com.gamesbykevin.sokoban.player.Journal;
 import com.gamesbykevin.sokoban.player.Player;
-import com.gamesbykevin.sokoban.player.PlayerHelper;
 import com.gamesbykevin.sokoban.thread.MainThread;
 
 /**
@@ -21,112 +22,142 @@ public class AI
 	private int index = 0;
 	
 	/**
-	 * The string representing the instruction to move left
+	 * The character representing the instruction to move left
 	 */
-	private static final String LEFT = "L";
+	private static final char LEFT = 'L';
 	
 	/**
-	 * The string representing the instruction to move right
+	 * The character representing the instruction to move right
 	 */
-	private static final String RIGHT = "R";
+	private static final char RIGHT = 'R';
 	
 	/**
-	 * The string representing the instruction to move down
+	 * The character representing the instruction to move down
 	 */
-	private static final String DOWN = "D";
+	private static final char DOWN = 'D';
 	
 	/**
-	 * The string representing the instruction to move up
+	 * The character representing the instruction to move up
 	 */
-	private static final String UP = "U";
+	private static final char UP = 'U';
 	
 	//the list of solutions for each level
 	private List<String> levels;
 	
+	/**
+	 * The number of solutions we keep, shared by every level with the same canonical hash
+	 */
+	private static final int SOLUTION_CACHE_SIZE = 256;
+	
+	//the solutions recently used, stored for the canonical (rotated/mirrored) level so duplicate levels share them
+	private static final Cache<Long, String> SOLUTIONS = new Cache<Long, String>(SOLUTION_CACHE_SIZE);
+	
 	/**
 	 * Create the ai to solve the level
 	 */
 	public AI() 
 	{
-		//set our list of levels
-		this.setLevels(Assets.TextAiInstructionsKey.SOLVED_EASY_A);
-		
-		//start at the beginning
-		this.reset(0);
+		//the list of levels is not read until it is needed
+		this.levels = null;
 	}
 
 	/**
 	 * Assign the levels we want to solve
 	 * @param key The unique identifier of the list of levels we want to solve
+	 * @throws Exception If the text file could not be read
 	 */
-	public final void setLevels(Assets.TextAiInstructionsKey key)
+	public final void setLevels(Assets.TextAiInstructionsKey key) throws Exception
 	{
-		//get all the lines in the text file
-		this.levels = Files.getText(key).getLines();
+		//get all the lines in the text file, the file is read the first time it is needed
+		this.levels = Assets.getSolution(key);
 	}
 	
 	/**
-	 * Reset the ai for the specified level
+	 * Reset the ai for the specified level.<br>
+	 * If the same level (or a rotated/mirrored copy) was solved before, that solution is used.<br>
+	 * A level without a player has no canonical hash, so its own solution is used and not shared
 	 * @param levelIndex The desired level to solve
+	 * @param level The level to solve, used to find the canonical hash
 	 */
-	public final void reset(final int levelIndex)
+	public final void reset(final int levelIndex, final Level level)
 	{
 		//set the text position back at 0
 		this.index = 0;
 		
-		//get the data for this level
-		String[] data = this.levels.get(levelIndex).split(" ");
+		//the canonical hash of the level
+		final LevelHash hash = LevelHash.create(level, true);
 		
-		//the instructions are always the last piece of data
-		this.instructions = data[data.length - 1].trim();
+		synchronized (SOLUTIONS)
+		{
+			final String solution = (hash != null) ? SOLUTIONS.get(hash.getHash()) : null;
+			
+			if (solution != null)
+			{
+				//turn the shared solution back to the way this level is
+				this.instructions = LevelHash.transform(solution, LevelHash.getInverse(hash.getTransform()));
+			}
+			else
+			{
+				//get the data for this level
+				String[] data = this.levels.get(levelIndex).split(" ");
+				
+				//the instructions are always the last piece of data
+				this.instructions = data[data.length - 1].trim();
+				
+				//share the solution with the duplicate levels
+				if (hash != null)
+					SOLUTIONS.put(hash.getHash(), LevelHash.transform(this.instructions, hash.getTransform()));
+			}
+		}
 		
 		if (MainThread.DEBUG)
 			System.out.println("Index=" + index + ",Steps=" + instructions);
 	}
 	
+	/**
+	 * Add the remaining instructions to the player's queue.<br>
+	 * The player will make the moves at the speed selected, if the queue is full the rest are added on the next update
+	 * @param player The player following the instructions
+	 * @param level Current level in play
+	 */
 	public void update(final Player player, final Level level)
 	{
-		//stay inbounds
-		if (index >= instructions.length())
-			return;
-		
-		//make sure we have not yet selected the player
-		if (!player.isSelected())
+		//add as many instructions as the queue has room for
+		while (index < instructions.length())
 		{
-			//make sure the player is at the current target as well
-			if (player.hasTarget())
+			//determine which direction we are moving
+			final byte direction;
+			
+			switch (Character.toUpperCase(instructions.charAt(index)))
 			{
-				//make sure blocks aren't moving
-				if (!level.hasDestination())
-					return;
-				
-				//flag selected true
-				player.setSelected(true);
-				
-				//determine which direction we are moving
-				if (instructions.substring(index, index + 1).equalsIgnoreCase(DOWN))
-				{
-					player.setTarget(player.getCol(), player.getRow() + 1);
-				}
-				else if (instructions.substring(index, index + 1).equalsIgnoreCase(UP))
-				{
-					player.setTarget(player.getCol(), player.getRow() - 1);
-				}
-				else if (instructions.substring(index, index + 1).equalsIgnoreCase(LEFT))
-				{
-					player.setTarget(player.getCol() - 1, player.getRow());
-				}
-				else if (instructions.substring(index, index + 1).equalsIgnoreCase(RIGHT))
-				{
-					player.setTarget(player.getCol() + 1, player.getRow());
-				}
-				
-                //calculate the targets
-                PlayerHelper.calculateTargets(player, level);
-                
-                //move to the next instruction
-                this.index++;
+				case DOWN:
+					direction = Journal.DIRECTION_SOUTH;
+					break;
+					
+				case UP:
+					direction = Journal.DIRECTION_NORTH;
+					break;
+					
+				case LEFT:
+					direction = Journal.DIRECTION_WEST;
+					break;
+					
+				case RIGHT:
+					direction = Journal.DIRECTION_EAST;
+					break;
+					
+				//skip anything that isn't a move
+				default:
+					this.index++;
+					continue;
 			}
+			
+			//if there is no room, try again next update
+			if (!player.getQueue().add(direction))
+				return;
+			
+			//move to the next instruction
+			this.index++;
 		}
 	}
 }
\ No newline at end of file
@@ -0,0 +1,428 @@
+package com.gamesbykevin.sokoban.ai;
+
+import com.gamesbykevin.androidframework.base.Cell;
+import com.gamesbykevin.sokoban.level.Level;
+import com.gamesbykevin.sokoban.level.tile.Tile;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Solve a level with the fewest pushes, used to measure how hard a level is.<br>
+ * A breadth first search is performed over the push states (location of every block and the area the player is in),<br>
+ * a block is never pushed to a dead square (a cell where the block can no longer reach a goal).<br>
+ * The search stops after NODE_LIMIT states are expanded, so a hard level will not be solved.
+ * @author GOD
+ */
+public final class Solver
+{
+    /**
+     * The most states we expand before we stop
+     */
+    public static final int NODE_LIMIT = 20000;
+
+    /**
+     * The change in column/row for each direction (east, west, south, north)
+     */
+    private static final int[] COL = {1, -1, 0, 0}, ROW = {0, 0, 1, -1};
+
+    //the size of the level
+    private int cols, rows;
+
+    //the cells the player can reach, and the goals
+    private boolean[] floor, goal;
+
+    //the cells a block can still be pushed to a goal from
+    private boolean[] live;
+
+    //the cells waiting to be checked when walking
+    private int[] open;
+
+    //the walk each cell was last visited in, so we don't have to clear it each time
+    private int[] visited;
+    private int walk = 0;
+
+    //the block at each cell for the state being expanded, -1 if there is no block
+    private int[] blocks;
+
+    //the result of the last solve
+    private int expanded = 0, pushes = -1;
+
+    /**
+     * Create a new solver
+     */
+    public Solver()
+    {
+        //default constructor
+    }
+
+    /**
+     * Solve the level from the starting position
+     * @param level The level to solve
+     * @return true if the level was solved, false if it can't be or we reached the node limit
+     */
+    public boolean solve(final Level level)
+    {
+        this.expanded = 0;
+        this.pushes = -1;
+
+        setup(level);
+
+        //there is no player to move
+        final Cell start = level.getStart();
+
+        if (start == null)
+            return false;
+
+        //the starting state
+        final int[] first = new int[level.getBlocks().size()];
+
+        for (int i = 0; i < first.length; i++)
+        {
+            final Cell block = level.getBlocks().get(i);
+            first[i] = getIndex((int)block.getCol(), (int)block.getRow());
+        }
+
+        Arrays.sort(first);
+
+        //the states to expand, in the order they were found
+        List<int[]> current = new ArrayList<int[]>();
+        List<int[]> next = new ArrayList<int[]>();
+        final List<Integer> players = new ArrayList<Integer>();
+        final List<Integer> nextPlayers = new ArrayList<Integer>();
+        current.add(first);
+        players.add(getIndex((int)start.getCol(), (int)start.getRow()));
+
+        //the states we have already expanded
+        final HashSet<String> closed = new HashSet<String>();
+
+        for (int depth = 0; !current.isEmpty(); depth++)
+        {
+            next.clear();
+            nextPlayers.clear();
+
+            for (int i = 0; i < current.size(); i++)
+            {
+                final int[] state = current.get(i);
+
+                //mark where each block is
+                for (int j = 0; j < state.length; j++)
+                {
+                    blocks[state[j]] = j;
+                }
+
+                //the area the player can reach, the smallest cell identifies the area
+                final int area = walk(players.get(i));
+
+                if (closed.add(getKey(state, area)))
+                {
+                    if (isSolved(state))
+                    {
+                        this.pushes = depth;
+                        clear(state);
+                        return true;
+                    }
+
+                    if (++expanded >= NODE_LIMIT)
+                    {
+                        clear(state);
+                        return false;
+                    }
+
+                    expand(state, next, nextPlayers);
+                }
+
+                clear(state);
+            }
+
+            //move to the next number of pushes
+            final List<int[]> tmp = current;
+            current = next;
+            next = tmp;
+            players.clear();
+            players.addAll(nextPlayers);
+        }
+
+        //every state was checked and there is no solution
+        return false;
+    }
+
+    /**
+     * Get the expanded
+     * @return The number of states expanded in the last solve
+     */
+    public int getExpanded()
+    {
+        return this.expanded;
+    }
+
+    /**
+     * Get the pushes
+     * @return The fewest pushes to solve the level, -1 if the last solve failed
+     */
+    public int getPushes()
+    {
+        return this.pushes;
+    }
+
+    /**
+     * Is the cell a dead square?
+     * @param col Column
+     * @param row Row
+     * @return true if the player can reach the cell but a block there can never reach a goal, false otherwise
+     */
+    public boolean isDead(final int col, final int row)
+    {
+        final int index = getIndex(col, row);
+        return (floor[index] && !live[index]);
+    }
+
+    /**
+     * Is the cell floor the player can reach?
+     * @param col Column
+     * @param row Row
+     * @return true if the player can reach the cell (ignoring blocks), false otherwise
+     */
+    public boolean isFloor(final int col, final int row)
+    {
+        return floor[getIndex(col, row)];
+    }
+
+    /**
+     * Create the buffers for the level, find the floor and the dead squares.<br>
+     * Called by solve, or on its own when only the floor and dead squares are needed
+     * @param level The level
+     */
+    public void setup(final Level level)
+    {
+        this.cols = level.getCols();
+        this.rows = level.getRows();
+
+        final int cells = cols * rows;
+
+        //only create new buffers if needed
+        if (open == null || open.length < cells)
+        {
+            this.open = new int[cells];
+            this.visited = new int[cells];
+            this.blocks = new int[cells];
+        }
+
+        this.floor = new boolean[cells];
+        this.goal = new boolean[cells];
+        this.live = new boolean[cells];
+        Arrays.fill(blocks, -1);
+
+        //the floor is every cell the player can reach when there are no blocks
+        final Cell start = level.getStart();
+
+        if (start == null)
+            return;
+
+        for (int row = 0; row < rows; row++)
+        {
+            for (int col = 0; col < cols; col++)
+            {
+                final Tile.Type type = level.getType(col, row);
+                floor[getIndex(col, row)] = (type == Tile.Type.Floor || type == Tile.Type.Goal);
+                goal[getIndex(col, row)] = (type == Tile.Type.Goal);
+            }
+        }
+
+        walk(getIndex((int)start.getCol(), (int)start.getRow()));
+
+        for (int index = 0; index < cells; index++)
+        {
+            floor[index] = floor[index] && visited[index] == walk;
+            goal[index] = goal[index] && floor[index];
+        }
+
+        //a block is live if it can be pulled back from a goal
+        int size = 0;
+
+        for (int index = 0; index < cells; index++)
+        {
+            if (goal[index])
+            {
+                live[index] = true;
+                open[size++] = index;
+            }
+        }
+
+        while (size > 0)
+        {
+            final int index = open[--size];
+            final int col = index % cols;
+            final int row = index / cols;
+
+            for (int direction = 0; direction < COL.length; direction++)
+            {
+                //the block moves one cell and the player needs the cell after that
+                final int blockCol = col + COL[direction], blockRow = row + ROW[direction];
+                final int playerCol = blockCol + COL[direction], playerRow = blockRow + ROW[direction];
+
+                if (!isFloor(blockCol, blockRow, playerCol, playerRow))
+                    continue;
+
+                final int block = getIndex(blockCol, blockRow);
+
+                if (!live[block])
+                {
+                    live[block] = true;
+                    open[size++] = block;
+                }
+            }
+        }
+    }
+
+    /**
+     * Are both cells floor?
+     * @return true if both cells are inside the level and floor, false otherwise
+     */
+    private boolean isFloor(final int col1, final int row1, final int col2, final int row2)
+    {
+        if (col1 < 0 || col1 >= cols || row1 < 0 || row1 >= rows)
+            return false;
+        if (col2 < 0 || col2 >= cols || row2 < 0 || row2 >= rows)
+            return false;
+
+        return (floor[getIndex(col1, row1)] && floor[getIndex(col2, row2)]);
+    }
+
+    /**
+     * Add every state that can be reached with a single push
+     * @param state The location of each block, the blocks are marked
+     * @param next Where the new states are added
+     * @param players Where the player is for each new state
+     */
+    private void expand(final int[] state, final List<int[]> next, final List<Integer> players)
+    {
+        for (int i = 0; i < state.length; i++)
+        {
+            final int col = state[i] % cols;
+            final int row = state[i] / cols;
+
+            for (int direction = 0; direction < COL.length; direction++)
+            {
+                //the player stands on one side and pushes the block to the other
+                final int playerCol = col - COL[direction], playerRow = row - ROW[direction];
+                final int targetCol = col + COL[direction], targetRow = row + ROW[direction];
+
+                if (!isFloor(playerCol, playerRow, targetCol, targetRow))
+                    continue;
+
+                final int player = getIndex(playerCol, playerRow);
+                final int target = getIndex(targetCol, targetRow);
+
+                //the player has to reach the side, and the block can't be pushed to another block or a dead square
+                if (visited[player] != walk || blocks[target] >= 0 || !live[target])
+                    continue;
+
+                final int[] tmp = state.clone();
+                tmp[i] = target;
+                Arrays.sort(tmp);
+                next.add(tmp);
+
+                //the player is where the block was
+                players.add(state[i]);
+            }
+        }
+    }
+
+    /**
+     * Mark every cell the player can reach, blocks can't be walked through
+     * @param start Where the player starts
+     * @return The smallest cell reached, used to identify the area
+     */
+    private int walk(final int start)
+    {
+        walk++;
+
+        int size = 0;
+        int smallest = start;
+        visited[start] = walk;
+        open[size++] = start;
+
+        while (size > 0)
+        {
+            final int index = open[--size];
+            final int col = index % cols;
+            final int row = index / cols;
+
+            if (index < smallest)
+                smallest = index;
+
+            for (int direction = 0; direction < COL.length; direction++)
+            {
+                final int nextCol = col + COL[direction], nextRow = row + ROW[direction];
+
+                if (nextCol < 0 || nextCol >= cols || nextRow < 0 || nextRow >= rows)
+                    continue;
+
+                final int next = getIndex(nextCol, nextRow);
+
+                if (visited[next] == walk || !floor[next] || blocks[next] >= 0)
+                    continue;
+
+                visited[next] = walk;
+                open[size++] = next;
+            }
+        }
+
+        return smallest;
+    }
+
+    /**
+     * Is every block on a goal?
+     * @param state The location of each block
+     * @return true if the level is solved, false otherwise
+     */
+    private boolean isSolved(final int[] state)
+    {
+        for (int i = 0; i < state.length; i++)
+        {
+            if (!goal[state[i]])
+                return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Remove the marked blocks
+     * @param state The location of each block
+     */
+    private void clear(final int[] state)
+    {
+        for (int i = 0; i < state.length; i++)
+        {
+            blocks[state[i]] = -1;
+        }
+    }
+
+    /**
+     * Get the key of the state
+     * @param state The location of each block
+     * @param area The smallest cell of the area the player is in
+     * @return The unique key of the state
+     */
+    private static String getKey(final int[] state, final int area)
+    {
+        final char[] key = new char[state.length + 1];
+
+        for (int i = 0; i < state.length; i++)
+        {
+            key[i] = (char)state[i];
+        }
+
+        key[state.length] = (char)area;
+        return new String(key);
+    }
+
+    private int getIndex(final int col, final int row)
+    {
+        return (row * cols) + col;
+    }
+}
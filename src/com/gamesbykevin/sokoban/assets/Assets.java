@@ -1,8 +1,17 @@
 package com.gamesbykevin.sokoban.assets;
 
 import android.app.Activity;
+import android.content.res.AssetManager;
 
 import com.gamesbykevin.androidframework.resources.*;
+import com.gamesbykevin.sokoban.level.Pack;
+import com.gamesbykevin.sokoban.thread.MainThread;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * This class will contain our game assets
@@ -45,11 +54,44 @@ public class Assets
      */
     private static final String DIRECTORY_TEXT = "text";
     
+    /**
+     * The directory where our binary level packs are kept, created from the text files by PackBuilder
+     */
+    private static final String DIRECTORY_BINARY = "binary";
+    
+    /**
+     * The file extension of the binary level packs.<br>
+     * aapt never compresses a .jet asset, so the packs can be memory mapped (a .bin asset would be compressed)
+     */
+    private static final String EXTENSION_BINARY = ".jet";
+    
     /**
      * The directory where our text files containing the ai instructions are kept
      */
     private static final String DIRECTORY_TEXT_SOLVED = "solved";
     
+    /**
+     * The number of level packs we keep open, a session usually plays a single difficulty
+     */
+    private static final int PACK_CACHE_SIZE = 3;
+    
+    /**
+     * The number of text files containing the ai instructions we keep in memory
+     */
+    private static final int SOLUTION_CACHE_SIZE = 2;
+    
+    //the level packs recently used
+    private static final Cache<TextKey, Pack> PACKS = new Cache<TextKey, Pack>(PACK_CACHE_SIZE);
+    
+    //the text files recently used, only when the binary level pack doesn't exist
+    private static final Cache<TextKey, List<String>> TEXTS = new Cache<TextKey, List<String>>(PACK_CACHE_SIZE);
+    
+    //the ai instructions recently used
+    private static final Cache<TextAiInstructionsKey, List<String>> SOLUTIONS = new Cache<TextAiInstructionsKey, List<String>>(SOLUTION_CACHE_SIZE);
+    
+    //object used to open the level packs and text files when they are first needed
+    private static AssetManager manager;
+    
     /**
      * The different fonts used in our game.<br>
      * Order these according to the file name in the "font" assets folder.
@@ -165,12 +207,16 @@ public class Assets
     }
     
     /**
-     * Load all assets
+     * Load all assets.<br>
+     * The level packs and ai instructions are not loaded here, they are opened the first time they are needed
      * @param activity Object containing AssetManager needed to load assets
      * @throws Exception 
      */
     public static final void load(final Activity activity) throws Exception
     {
+        //store the asset manager to open the level packs later
+        manager = activity.getAssets();
+        
         //load all images for the menu
         Images.load(activity, ImageMenuKey.values(), DIRECTORY_MENU_IMAGE, true);
         
@@ -188,12 +234,120 @@ public class Assets
         
         //load all fonts for the game
         Font.load(activity, FontGameKey.values(), DIRECTORY_GAME_FONT, true);
+    }
+    
+    /**
+     * Get the binary level pack, the pack is opened the first time it is requested
+     * @param key The level pack
+     * @return The level pack, null if the binary file does not exist
+     */
+    public static synchronized Pack getPack(final TextKey key)
+    {
+        Pack pack = PACKS.get(key);
+        
+        if (pack == null)
+        {
+            //track how long it takes
+            final long time = System.nanoTime();
+            
+            pack = Pack.open(manager, key);
+            
+            //only keep the pack if it exists, the text file is used instead
+            if (pack != null)
+                PACKS.put(key, pack);
+            
+            //if debugging, print the time to open
+            if (MainThread.DEBUG)
+                System.out.println("Level pack " + key + " opened (ms) " + ((System.nanoTime() - time) / 1000000.0));
+        }
         
-        //load all text files
-        Files.load(activity, TextKey.values(), DIRECTORY_TEXT, true);
+        return pack;
+    }
+    
+    /**
+     * Get the lines of the level pack text file, the file is read the first time it is requested
+     * @param key The level pack
+     * @return Each line in the text file
+     * @throws Exception If the text file could not be read
+     */
+    public static synchronized List<String> getText(final TextKey key) throws Exception
+    {
+        List<String> lines = TEXTS.get(key);
         
-        //load the text files containing the ai instructions to solve a level
-        Files.load(activity, TextAiInstructionsKey.values(), DIRECTORY_TEXT_SOLVED, true);
+        if (lines == null)
+        {
+            lines = read(DIRECTORY_TEXT, key.ordinal());
+            TEXTS.put(key, lines);
+        }
+        
+        return lines;
+    }
+    
+    /**
+     * Get the lines of the text file containing the ai instructions, the file is read the first time it is requested
+     * @param key The list of solved levels
+     * @return Each line in the text file
+     * @throws Exception If the text file could not be read
+     */
+    public static synchronized List<String> getSolution(final TextAiInstructionsKey key) throws Exception
+    {
+        List<String> lines = SOLUTIONS.get(key);
+        
+        if (lines == null)
+        {
+            lines = read(DIRECTORY_TEXT_SOLVED, key.ordinal());
+            SOLUTIONS.put(key, lines);
+        }
+        
+        return lines;
+    }
+    
+    /**
+     * Read every line of a text file in the assets
+     * @param directory The directory containing the text files
+     * @param index The position of the file, when the files are ordered by file name
+     * @return Each line in the text file
+     * @throws Exception If the text file could not be read
+     */
+    private static List<String> read(final String directory, final int index) throws Exception
+    {
+        //track how long it takes
+        final long time = System.nanoTime();
+        
+        //the keys are ordered by file name
+        final String[] names = manager.list(directory);
+        Arrays.sort(names);
+        
+        final List<String> lines = new ArrayList<String>();
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(manager.open(directory + "/" + names[index]), "UTF-8"));
+        
+        try
+        {
+            for (String line = reader.readLine(); line != null; line = reader.readLine())
+            {
+                lines.add(line);
+            }
+        }
+        finally
+        {
+            reader.close();
+        }
+        
+        //if debugging, print the time to read
+        if (MainThread.DEBUG)
+            System.out.println("Text " + names[index] + " read (ms) " + ((System.nanoTime() - time) / 1000000.0));
+        
+        return lines;
+    }
+    
+    /**
+     * Get the binary file
+     * @param key The level pack
+     * @return The location of the binary level pack in the assets
+     */
+    public static final String getBinaryFile(final TextKey key)
+    {
+        return DIRECTORY_BINARY + "/" + key.toString() + EXTENSION_BINARY;
     }
     
     /**
@@ -207,6 +361,14 @@ public class Assets
             Font.dispose();
             Audio.dispose();
             Files.dispose();
+            
+            //remove the level packs and text files so they are opened again when needed
+            synchronized (Assets.class)
+            {
+                PACKS.clear();
+                TEXTS.clear();
+                SOLUTIONS.clear();
+            }
         }
         catch (Exception e)
         {
@@ -0,0 +1,100 @@
+package com.gamesbykevin.sokoban.assets;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * A cache that keeps the most recently used values.<br>
+ * Once the capacity is reached, the values that have gone the longest without being used are removed.<br>
+ * Each value has a size of 1 so the capacity is the number of values, override getSize to limit the total size instead (e.g. bytes)
+ * @author GOD
+ */
+public class Cache<K, V> extends LinkedHashMap<K, V>
+{
+    private static final long serialVersionUID = 1L;
+
+    //the most values we keep (total size)
+    private final int capacity;
+
+    //the total size of the values we keep
+    private int total = 0;
+
+    /**
+     * Create a new cache
+     * @param capacity The most values we keep (total size)
+     */
+    public Cache(final int capacity)
+    {
+        //order by access so the eldest value is the least recently used
+        super(16, 0.75f, true);
+
+        this.capacity = capacity;
+    }
+
+    /**
+     * Get the capacity
+     * @return The most values we keep (total size)
+     */
+    public int getCapacity()
+    {
+        return this.capacity;
+    }
+
+    /**
+     * Get the total
+     * @return The total size of the values we keep
+     */
+    public int getTotal()
+    {
+        return this.total;
+    }
+
+    /**
+     * Get the size of the value
+     * @param value The value
+     * @return The size counted towards the capacity, 1 unless overridden
+     */
+    protected int getSize(final V value)
+    {
+        return 1;
+    }
+
+    @Override
+    public V put(final K key, final V value)
+    {
+        final V previous = super.put(key, value);
+
+        //track the total size
+        total += getSize(value);
+
+        if (previous != null)
+            total -= getSize(previous);
+
+        //remove the least recently used values until we are within the capacity
+        for (Iterator<V> iterator = values().iterator(); total > getCapacity() && iterator.hasNext(); )
+        {
+            total -= getSize(iterator.next());
+            iterator.remove();
+        }
+
+        return previous;
+    }
+
+    @Override
+    public V remove(final Object key)
+    {
+        final V value = super.remove(key);
+
+        if (value != null)
+            total -= getSize(value);
+
+        return value;
+    }
+
+    @Override
+    public void clear()
+    {
+        super.clear();
+        this.total = 0;
+    }
+}
@@ -0,0 +1,158 @@
+package com.gamesbykevin.sokoban.camera;
+
+import com.gamesbykevin.sokoban.level.Level;
+import com.gamesbykevin.sokoban.level.tile.TileHelper;
+import com.gamesbykevin.sokoban.panel.GamePanel;
+
+/**
+ * The camera follows the player in levels that don't fit the window.<br>
+ * The player can move inside the dead zone without the camera moving, after that the camera scrolls smoothly to keep up.<br>
+ * The camera position is the start location (x,y) of the level, so moving the camera only changes where the level is rendered.
+ * @author GOD
+ */
+public final class Camera
+{
+    /**
+     * How much of the remaining distance the camera moves each update (0 - 1)
+     */
+    public static final double SMOOTHING = 0.2;
+
+    /**
+     * How far the player can be from the middle of the screen before the camera moves (pixels)
+     */
+    public static final double DEAD_ZONE_X = TileHelper.DEFAULT_DIMENSION;
+
+    /**
+     * How far the player can be from the middle of the screen before the camera moves (pixels)
+     */
+    public static final double DEAD_ZONE_Y = TileHelper.DEFAULT_DIMENSION * 2;
+
+    /**
+     * When the camera is this close to where it is headed it will stop (pixels)
+     */
+    private static final double SNAP = 0.5;
+
+    //the current position of the camera
+    private double x = 0, y = 0;
+
+    //the position of the camera at the previous update, used to render in between updates
+    private double previousX = 0, previousY = 0;
+
+    //where the camera is headed
+    private double targetX = 0, targetY = 0;
+
+    /**
+     * Create a new camera
+     */
+    public Camera()
+    {
+        //default constructor
+    }
+
+    /**
+     * Place the camera where the level starts, the camera will not scroll there
+     * @param level The current level
+     */
+    public void reset(final Level level)
+    {
+        this.x = level.getStartX();
+        this.y = level.getStartY();
+        this.targetX = getX();
+        this.targetY = getY();
+
+        //there is no previous position to render from
+        setPrevious();
+    }
+
+    /**
+     * Store the current position as the previous position, called before each update
+     */
+    public void setPrevious()
+    {
+        this.previousX = getX();
+        this.previousY = getY();
+    }
+
+    /**
+     * Move the camera towards the specified location
+     * @param col Column the camera is following
+     * @param row Row the camera is following
+     */
+    public void update(final double col, final double row)
+    {
+        //the position that would place the location in the middle of the screen
+        final double middleX = (GamePanel.WIDTH / 2) - (TileHelper.DEFAULT_DIMENSION / 2) - (col * TileHelper.DEFAULT_DIMENSION);
+        final double middleY = (GamePanel.HEIGHT / 2) - (TileHelper.DEFAULT_DIMENSION / 2) - (row * TileHelper.DEFAULT_DIMENSION);
+
+        //only move the target once we are outside of the dead zone, and only as far as needed
+        if (middleX > targetX + DEAD_ZONE_X)
+        {
+            this.targetX = middleX - DEAD_ZONE_X;
+        }
+        else if (middleX < targetX - DEAD_ZONE_X)
+        {
+            this.targetX = middleX + DEAD_ZONE_X;
+        }
+
+        if (middleY > targetY + DEAD_ZONE_Y)
+        {
+            this.targetY = middleY - DEAD_ZONE_Y;
+        }
+        else if (middleY < targetY - DEAD_ZONE_Y)
+        {
+            this.targetY = middleY + DEAD_ZONE_Y;
+        }
+
+        //move part of the way towards the target
+        this.x = approach(getX(), targetX);
+        this.y = approach(getY(), targetY);
+    }
+
+    /**
+     * Move the position part of the way to the target
+     * @param position The current position
+     * @param target Where we are headed
+     * @return The new position
+     */
+    private static double approach(final double position, final double target)
+    {
+        //if we are close enough we are there
+        if (Math.abs(target - position) <= SNAP)
+            return target;
+
+        return position + ((target - position) * SMOOTHING);
+    }
+
+    /**
+     * Is the camera moving?
+     * @return true if the camera has not reached where it is headed, false otherwise
+     */
+    public boolean isMoving()
+    {
+        return (getX() != targetX || getY() != targetY);
+    }
+
+    public double getX()
+    {
+        return this.x;
+    }
+
+    public double getY()
+    {
+        return this.y;
+    }
+
+    /**
+     * Assign the level start location to the camera position in between the previous and current update
+     * @param level The current level
+     * @param interpolation How far we are between the previous update and the next (0 - 1)
+     */
+    public void apply(final Level level, final float interpolation)
+    {
+        //round to the nearest pixel so the tiles and sprites stay aligned
+        level.setStartLocation(
+            (int)Math.round(previousX + ((getX() - previousX) * interpolation)),
+            (int)Math.round(previousY + ((getY() - previousY) * interpolation))
+        );
+    }
+}
@@ -4,6 +4,7 @@ import android.content.Context;
 import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.Paint;
+import android.graphics.Rect;
 import android.os.Vibrator;
 import android.view.MotionEvent;
 
@@ -13,13 +14,23 @@ import com.gamesbykevin.androidframework.text.TimeFormat;
 import com.gamesbykevin.sokoban.ai.AI;
 import com.gamesbykevin.sokoban.assets.Assets;
 import com.gamesbykevin.sokoban.game.controller.Controller;
+import com.gamesbykevin.sokoban.level.Level;
 import com.gamesbykevin.sokoban.level.LevelHelper;
 import com.gamesbykevin.sokoban.level.Levels;
+import com.gamesbykevin.sokoban.player.Journal;
+import com.gamesbykevin.sokoban.player.PathFinder;
 import com.gamesbykevin.sokoban.player.Player;
+import com.gamesbykevin.sokoban.player.PushPlanner;
+import com.gamesbykevin.sokoban.player.Speed;
+import com.gamesbykevin.sokoban.replay.Playback;
+import com.gamesbykevin.sokoban.replay.Replay;
+import com.gamesbykevin.sokoban.storage.progress.Progress;
 import com.gamesbykevin.sokoban.player.PlayerHelper;
 import com.gamesbykevin.sokoban.screen.OptionsScreen;
 import com.gamesbykevin.sokoban.screen.ScreenManager;
 import com.gamesbykevin.sokoban.storage.scorecard.ScoreCard;
+import com.gamesbykevin.sokoban.panel.GamePanel;
+import com.gamesbykevin.sokoban.target.Target;
 import com.gamesbykevin.sokoban.thread.MainThread;
 
 /**
@@ -49,9 +60,18 @@ public final class Game implements IGame
     //this is used to move the player
     private Cell start;
     
+    //used to find a path when the player taps a location
+    private PathFinder pathFinder;
+    
+    //used to plan the moves when the player drags a block
+    private PushPlanner pushPlanner;
+    
     //the ai used to solve the level
     private AI ai;
     
+    //the best run being watched, null if the player is playing
+    private Playback playback;
+    
     //the location where we display text when selecting level
     private static final int LEVEL_START_TEXT_X = 96;
     private static final int LEVEL_START_TEXT_Y = 761;
@@ -65,11 +85,32 @@ public final class Game implements IGame
     //do we reset the current level
     private boolean levelReset = false;
     
+    //did the player start touching the level
+    private boolean touch = false;
+    
+    //are the moves waiting from a plan (walk/drag), instead of swipes
+    private boolean planned = false;
+    
+    //do we need to render everything the next frame
+    private boolean redraw = true;
+    
+    //the area changed in the previous frame and in the current frame
+    private final Rect dirtyPrevious = new Rect(), dirtyCurrent = new Rect();
+    
+    //the level and start location at the previous frame, if either changes everything is rendered
+    private Level dirtyLevel;
+    private int dirtyStartX, dirtyStartY;
+    
     /**
      * The default length you have to move your finger in order to trigger the player to move
      */
     private static double SWIPE_LENGTH = .5;
     
+    /**
+     * The most swipes we will buffer while the player is still moving, less than 1 for no limit
+     */
+    private static final int SWIPE_LIMIT = 5;
+    
     public Game(final ScreenManager screen) throws Exception
     {
         //our main screen object reference
@@ -78,6 +119,12 @@ public final class Game implements IGame
         //create new cell that we reference to move the player
         this.start = new Cell();
         
+        //create new path finder so the player can tap where to walk
+        this.pathFinder = new PathFinder();
+        
+        //create new planner so the player can drag a block where to go
+        this.pushPlanner = new PushPlanner();
+        
         //create new paint object
         this.paint = new Paint();
         this.paint.setTypeface(Font.getFont(Assets.FontGameKey.Default));
@@ -100,6 +147,50 @@ public final class Game implements IGame
     	return this.ai;
     }
     
+    /**
+     * Get the playback
+     * @return The best run being watched, null if the player is playing
+     */
+    public Playback getPlayback()
+    {
+    	return this.playback;
+    }
+    
+    /**
+     * Watch the best run saved for the current level.<br>
+     * The level and player are reset to the start and the moves are played back.
+     * @return true if a best run was found, false otherwise
+     * @throws Exception If there is a problem resetting the level
+     */
+    public boolean watch() throws Exception
+    {
+    	//load the best run for the current level
+    	final Replay replay = Replay.load(
+    		getScreen().getPanel().getActivity(), 
+    		getLevels().getKey().toString(), 
+    		getLevels().getLevelSelect().getLevelIndex()
+    	);
+    	
+    	//if there is no best run we can't watch
+    	if (replay == null)
+    		return false;
+    	
+		//reset the current level to its original state
+		getLevels().reset();
+		
+		//reset the player to the start position
+		getPlayer().reset(getLevels().getLevel());
+		
+		//reset the controller
+		getController().reset();
+		
+		//create the playback from the start of the level
+		this.playback = new Playback(replay, getLevels().getLevel(), getPlayer());
+		
+		//the best run was found
+		return true;
+    }
+    
     /**
      * Get our levels
      * @return Levels Object container
@@ -142,7 +233,7 @@ public final class Game implements IGame
     	this.scoreCard = new ScoreCard(this, getScreen().getPanel().getActivity(), key.toString() + " ");
         
         //create new levels object
-        this.levels = new Levels(key);
+        this.levels = new Levels(getScreen().getPanel().getActivity(), key);
         
         //check the storage and update the level select screen
         updateLevelSelect();
@@ -156,6 +247,166 @@ public final class Game implements IGame
         	LEVEL_START_TEXT_X, 
         	LEVEL_START_TEXT_Y
         );
+        
+        //if there is progress saved for this level pack, continue where the player left off
+        final Progress progress = Progress.load(getScreen().getPanel().getActivity());
+        
+        if (progress != null && progress.getKey() == key && progress.getLevelIndex() < getLevels().getLevelSelect().getTotal())
+        {
+        	//select the level
+        	getLevels().getLevelSelect().setLevelIndex(progress.getLevelIndex());
+        	getLevels().getLevelSelect().setSelection(true);
+        	
+        	//start the level
+        	startLevel();
+        	
+        	//restore the progress, if it doesn't match start over
+        	if (!progress.restore(getLevels().getLevelTracker().getHash(), getLevels().getLevel(), getPlayer()))
+        		getPlayer().reset(getLevels().getLevel());
+        	
+        	//reset the controller
+        	getController().reset();
+        	
+        	//enable undo if moves were made
+        	if (getPlayer().getJournal().canUndo())
+        		getController().setEnabled();
+        }
+    }
+    
+    /**
+     * Pause the level in play.<br>
+     * The timer is stopped and the player and blocks are rendered where they are, since they won't be updated
+     */
+    public void pause()
+    {
+    	if (getPlayer() != null)
+    	{
+    		getPlayer().getTimer().pause();
+    		getPlayer().setPrevious();
+    	}
+    	
+    	if (getLevels() != null && getLevels().getLevel() != null)
+    	{
+    		for (Target block : getLevels().getLevel().getCurrent())
+    		{
+    			block.setPrevious();
+    		}
+    	}
+    }
+    
+    /**
+     * Save the progress of the level in play, so the player can continue later.<br>
+     * If no level is in play, any progress saved is removed
+     */
+    public void save()
+    {
+    	//the level needs to be selected, not completed, and not a best run being watched
+    	if (getLevels() != null && getLevels().getLevelSelect().hasSelection() && getLevels().getLevel() != null && 
+    		!LevelHelper.hasCompleted(getLevels().getLevel()) && getPlayback() == null && getPlayer().getJournal().canUndo())
+    	{
+    		Progress.save(
+    			getScreen().getPanel().getActivity(), 
+    			getLevels().getKey(), 
+    			getLevels().getLevelSelect().getLevelIndex(), 
+    			getLevels().getLevelTracker().getHash(), 
+    			getLevels().getLevel(), 
+    			getPlayer()
+    		);
+    	}
+    	else
+    	{
+    		Progress.delete(getScreen().getPanel().getActivity());
+    	}
+    }
+    
+    /**
+     * Is the game idle?<br>
+     * Nothing changes on its own while idle, so we only need to render again when the user interacts.
+     * @return true if the level select is showing, or the player and blocks are at rest with no moves waiting, false otherwise
+     */
+    public boolean isIdle()
+    {
+    	//we can't be idle until the level exists, or while resetting
+    	if (getLevels() == null || hasLevelReset())
+    		return false;
+    	
+    	//the level select only changes when touched, or when the thumbnails are ready
+    	if (!getLevels().getLevelSelect().hasSelection())
+    		return !getLevels().isLoading();
+    	
+    	//the level needs to exist
+    	if (getLevels().getLevel() == null || getPlayer() == null)
+    		return false;
+    	
+    	//a completed level still needs to be updated to show the game over screen
+    	if (LevelHelper.hasCompleted(getLevels().getLevel()))
+    		return false;
+    	
+    	//a best run being watched keeps playing
+    	if (getPlayback() != null)
+    		return false;
+    	
+    	//the player, blocks, and camera need to be at rest, with no moves waiting
+    	return (getPlayer().hasTarget() && getPlayer().getQueue().isEmpty() && getLevels().getLevel().hasDestination() && !getPlayer().getCamera().isMoving());
+    }
+    
+    /**
+     * Update the render coordinates of the player and blocks, in between the previous and next update
+     */
+    private void updateRenderCoordinates()
+    {
+        if (getLevels().getLevelSelect().hasSelection() && getLevels().getLevel() != null && getPlayer() != null)
+        {
+        	getLevels().getLevel().setInterpolation(getScreen().getPanel().getInterpolation());
+        	getPlayer().updateRenderCoordinates(getLevels().getLevel(), getScreen().getPanel().getInterpolation());
+        }
+    }
+    
+    /**
+     * Get the area that changed since the previous frame.<br>
+     * Only a level in play can be partially rendered, and only while the start location (camera) isn't moving
+     * @param dirty The area that needs to be rendered again
+     * @return true if only the dirty area needs to be rendered, false if everything needs to be rendered
+     */
+    public boolean getDirty(final Rect dirty)
+    {
+    	//the level needs to be in play
+    	if (getLevels() == null || !getLevels().getLevelSelect().hasSelection() || getLevels().getLevel() == null || getPlayer() == null || hasLevelReset())
+    	{
+    		this.redraw = true;
+    		return false;
+    	}
+    	
+    	//make sure the start location and player are where they will be rendered
+    	updateRenderCoordinates();
+    	
+    	final Level level = getLevels().getLevel();
+    	
+    	//the area of the player, any blocks moving, and the undo button if it changed
+    	dirtyCurrent.setEmpty();
+    	getPlayer().addDirty(level, dirtyCurrent);
+    	level.addDirty(dirtyCurrent);
+    	getController().addDirty(dirtyCurrent);
+    	
+    	//if the level or start location changed everything needs to be rendered, a best run being watched can place the player anywhere
+    	final boolean full = (redraw || getPlayback() != null || level != dirtyLevel || level.getStartX() != dirtyStartX || level.getStartY() != dirtyStartY);
+    	
+    	//the area rendered in the previous frame is included, so what was there is cleared
+    	dirty.set(dirtyCurrent);
+    	dirty.union(dirtyPrevious);
+    	
+    	//remember this frame for the next
+    	dirtyPrevious.set(dirtyCurrent);
+    	this.dirtyLevel = level;
+    	this.dirtyStartX = level.getStartX();
+    	this.dirtyStartY = level.getStartY();
+    	this.redraw = false;
+    	
+    	//keep the area on the screen
+    	if (!dirty.intersect(0, 0, GamePanel.WIDTH, GamePanel.HEIGHT))
+    		return false;
+    	
+    	return !full;
     }
     
     /**
@@ -253,103 +504,243 @@ public final class Game implements IGame
             //only update game if no controller buttons were clicked
             if (!getController().update(action, x, y))
             {
+            	//if watching a best run, a tap will change how fast it plays
+            	if (getPlayback() != null)
+            	{
+            		if (action == MotionEvent.ACTION_UP)
+            		{
+            			//double the rate, starting over once we pass the max
+            			if (getPlayback().getRate() >= Playback.RATE_MAX)
+            			{
+            				getPlayback().setRate(Playback.RATE_MIN);
+            			}
+            			else
+            			{
+            				getPlayback().setRate(getPlayback().getRate() * 2);
+            			}
+            		}
+            		
+            		//no need to continue
+            		return;
+            	}
+            	
                 if (action == MotionEvent.ACTION_DOWN)
                 {
-                    //check that we haven't selected the player yet
-                    if (!getPlayer().isSelected())
-                    {
-                        //make sure the player is at their destination, before it can be moved
-                        if (getPlayer().hasTarget())
-                        {
-                            start.setCol(LevelHelper.getCol(getLevels().getLevel(), x));
-                            start.setRow(LevelHelper.getRow(getLevels().getLevel(), y));
-                            
-                            //flag player as selected
-                            getPlayer().setSelected(true);
-                        }
-                    }
+                    //store where the touch started, the player can be moving
+                    start.setCol(LevelHelper.getCol(getLevels().getLevel(), x));
+                    start.setRow(LevelHelper.getRow(getLevels().getLevel(), y));
+                    
+                    //flag the touch as started
+                    this.touch = true;
                 }
                 else if (action == MotionEvent.ACTION_UP)
                 {
-                	//if the player wasn't selected previous, we can't continue
-                	if (!getPlayer().isSelected())
+                	//if the touch wasn't started previous, we can't continue
+                	if (!hasTouch())
                 		return;
                 	
-                    //make sure the player is already at their assigned destination before moving again
-                    if (getPlayer().hasTarget())
+                	//the touch is now finished
+                	this.touch = false;
+                	
+                    //locate new location
+                    double col = LevelHelper.getCol(getLevels().getLevel(), x);
+                    double row = LevelHelper.getRow(getLevels().getLevel(), y);
+                    
+                    //calculate the difference from the previous location
+                    double differenceHorizontal = (start.getCol() > col) ? start.getCol() - col : col - start.getCol();
+                    double differenceVertical = (start.getRow() > row) ? start.getRow() - row : row - start.getRow();
+                    
+                    //the greater different will determine the direction
+                    final byte direction;
+                    
+                    if (differenceHorizontal > differenceVertical)
                     {
-                        //locate new location
-                        double col = LevelHelper.getCol(getLevels().getLevel(), x);
-                        double row = LevelHelper.getRow(getLevels().getLevel(), y);
-                        
-                        //calculate the difference from the previous location
-                        double differenceHorizontal = (start.getCol() > col) ? start.getCol() - col : col - start.getCol();
-                        double differenceVertical = (start.getRow() > row) ? start.getRow() - row : row - start.getRow();
-                        
-                        //if we haven't swiped at least the distance of 1 cell, don't continue
-                        if (differenceHorizontal < SWIPE_LENGTH && differenceVertical < SWIPE_LENGTH)
-                        {
-                        	//un-select the player
-                        	getPlayer().setSelected(false);
-                        	
-                        	//no need to continue
-                        	return;
-                        }
-                        
-                        //the greater different will determine the direction
-                        if (differenceHorizontal > differenceVertical)
-                        {
-                            if (start.getCol() > col)
-                            {
-                                //assign the player destination
-                                getPlayer().setTarget(getPlayer().getCol() - 1, getPlayer().getRow());
-                            }
-                            else
-                            {
-                                //assign the player destination
-                                getPlayer().setTarget(getPlayer().getCol() + 1, getPlayer().getRow());
-                            }
-                        }
-                        else
-                        {
-                            if (start.getRow() > row)
-                            {
-                                //assign the player destination
-                                getPlayer().setTarget(getPlayer().getCol(), getPlayer().getRow() - 1);
-                            }
-                            else
-                            {
-                                //assign the player destination
-                                getPlayer().setTarget(getPlayer().getCol(), getPlayer().getRow() + 1);
-                            }
-                        }
-                        
-                        //calculate the targets
-                        PlayerHelper.calculateTargets(getPlayer(), getLevels().getLevel());
-                        
-                        //now that we set the targets, we can enable the undo button
-                        getController().setEnabled();
+                        //move the player west or east
+                        direction = (start.getCol() > col) ? Journal.DIRECTION_WEST : Journal.DIRECTION_EAST;
+                    }
+                    else
+                    {
+                        //move the player north or south
+                        direction = (start.getRow() > row) ? Journal.DIRECTION_NORTH : Journal.DIRECTION_SOUTH;
+                    }
+                    
+                    //if we haven't swiped at least the distance of 1 cell, this is a tap
+                    final boolean tap = (differenceHorizontal < SWIPE_LENGTH && differenceVertical < SWIPE_LENGTH);
+                    
+                    //if a block was dragged or a location tapped, the moves waiting are replaced with a new plan
+                    if (tap || hasDrag(col, row, direction))
+                    {
+                    	//any moves waiting are cancelled by the new plan
+                    	getPlayer().getQueue().clear();
+                    	
+                    	//walk to the location tapped, or push the block where it was dragged (if possible)
+                    	this.planned = (tap) ? walk(col, row) : drag(col, row);
+                    	
+                    	//if the block can't be pushed there, the drag is made as a normal swipe
+                    	if (tap || this.planned)
+                    		return;
+                    }
+                    
+                    //a swipe will cancel a plan that is in progress
+                    if (this.planned)
+                    {
+                    	getPlayer().getQueue().clear();
+                    	this.planned = false;
                     }
+                    
+                    //buffer the swipe, it will be made once the previous moves have finished (if we haven't reached the limit)
+                    if (SWIPE_LIMIT < 1 || getPlayer().getQueue().getSize() < SWIPE_LIMIT)
+                    	getPlayer().getQueue().add(direction);
                 }
             }
             else
             {
-                //the controller was updated, so we will un-select the player
-                getPlayer().setSelected(false);
+                //the controller was updated, so the touch is cancelled
+                this.touch = false;
             }
         }
     }
     
+    /**
+     * Has the touch started?
+     * @return true if the player touched the level and has not released, false otherwise
+     */
+    private boolean hasTouch()
+    {
+    	return this.touch;
+    }
+    
+    /**
+     * Walk the player to the specified location along the shortest path.<br>
+     * If the location can't be reached the player will not move
+     * @param col Column where the player wants to go
+     * @param row Row where the player wants to go
+     * @return true if a path was found, false otherwise
+     */
+    private boolean walk(final double col, final double row)
+    {
+    	//we can't walk outside of the level
+    	if (col < 0 || row < 0)
+    		return false;
+    	
+    	//track the time if debugging
+    	final long time = System.nanoTime();
+    	
+    	//find the path from where the player is headed, the directions will be added to the queue
+    	final boolean result = pathFinder.find(
+    		getLevels().getLevel(), 
+    		(int)getPlayer().getTarget().getCol(), 
+    		(int)getPlayer().getTarget().getRow(), 
+    		(int)col, 
+    		(int)row, 
+    		getPlayer().getQueue()
+    	);
+    	
+    	if (MainThread.DEBUG)
+    		System.out.println("Path found=" + result + ", Moves=" + getPlayer().getQueue().getSize() + ", Time (ns)=" + (System.nanoTime() - time));
+    	
+    	return result;
+    }
+    
+    /**
+     * Did the player drag a block?
+     * @param col Column where the touch finished
+     * @param row Row where the touch finished
+     * @param direction The direction of the touch if it is made as a swipe
+     * @return true if the touch started on a block and finished on a location in the level a swipe wouldn't reach, false otherwise
+     */
+    private boolean hasDrag(final double col, final double row, final byte direction)
+    {
+    	//the drag has to start and finish inside the level
+    	if (start.getCol() < 0 || start.getRow() < 0 || col < 0 || row < 0)
+    		return false;
+    	
+    	//the drag has to finish on a different location
+    	if ((int)start.getCol() == (int)col && (int)start.getRow() == (int)row)
+    		return false;
+    	
+    	//if the touch finished on the location next to the start, this is a swipe
+    	if ((int)start.getCol() + Journal.getCol(direction) == (int)col && (int)start.getRow() + Journal.getRow(direction) == (int)row)
+    		return false;
+    	
+    	//the drag has to start on a block
+    	return (getLevels().getLevel().getBlock((int)start.getCol(), (int)start.getRow()) != null);
+    }
+    
+    /**
+     * Plan the moves to push the block where the drag started to the specified location.<br>
+     * If a plan is found the moves will be added to the player's queue
+     * @param col Column where the block was dragged to
+     * @param row Row where the block was dragged to
+     * @return true if a plan was found, false otherwise
+     */
+    private boolean drag(final double col, final double row)
+    {
+    	//get the block where the drag started
+    	final Target block = getLevels().getLevel().getBlock((int)start.getCol(), (int)start.getRow());
+    	
+    	//track the time if debugging
+    	final long time = System.nanoTime();
+    	
+    	//plan the moves to push the block, the directions will be added to the queue
+    	final boolean result = pushPlanner.find(
+    		getLevels().getLevel(), 
+    		getPlayer(), 
+    		block, 
+    		(int)col, 
+    		(int)row, 
+    		getPlayer().getQueue()
+    	);
+    	
+    	if (MainThread.DEBUG)
+    		System.out.println("Push plan found=" + result + ", Moves=" + getPlayer().getQueue().getSize() + ", Time (ns)=" + (System.nanoTime() - time));
+    	
+    	return result;
+    }
+    
     /**
      * Undo the previous move
      */
     public void undo()
     {
-    	//undo the players previous move
-    	getPlayer().undo();
+    	//we can't undo while watching a best run
+    	if (getPlayback() != null)
+    		return;
+    	
+    	//any moves waiting are cancelled
+    	getPlayer().getQueue().clear();
+    	
+    	//undo the players previous move, and the block that was pushed (if any)
+    	PlayerHelper.undo(getPlayer(), getLevels().getLevel());
+    	
+    	//the player and block are placed, so render everything
+    	this.redraw = true;
+    	
+    	//update coordinates
+    	getPlayer().updateRenderCoordinates(getLevels().getLevel());
+    }
+    
+    /**
+     * Redo the move that was previously undone
+     */
+    public void redo()
+    {
+    	//we can't redo while watching a best run
+    	if (getPlayback() != null)
+    		return;
+    	
+    	//any moves waiting are cancelled
+    	getPlayer().getQueue().clear();
+    	
+    	//redo the players next move, and the block that was pushed (if any)
+    	if (PlayerHelper.redo(getPlayer(), getLevels().getLevel()))
+    	{
+    		//now that we have a move, we can enable the undo button
+    		getController().setEnabled();
+    	}
     	
-    	//undo the blocks in the level as well
-    	getLevels().getLevel().undo();
+    	//the player and block are placed, so render everything
+    	this.redraw = true;
     	
     	//update coordinates
     	getPlayer().updateRenderCoordinates(getLevels().getLevel());
@@ -371,6 +762,12 @@ public final class Game implements IGame
     		//flag reset false
     		this.levelReset = false;
     		
+    		//render everything once the level is reset
+    		this.redraw = true;
+    		
+    		//stop watching the best run (if any)
+    		this.playback = null;
+    		
     		//reset the current level to its original state
     		getLevels().reset();
     		
@@ -392,6 +789,28 @@ public final class Game implements IGame
             {
                 if (LevelHelper.hasCompleted(getLevels().getLevel()))
                 {
+                	//if we were watching the best run, there is no score to save
+                	if (getPlayback() != null)
+                	{
+                		//stop watching
+                		this.playback = null;
+                		
+                        //set game over state
+                    	getScreen().setState(ScreenManager.State.GameOver);
+
+                        //set display message
+                        getScreen().getScreenGameover().setMessage("Replay Complete");
+                        
+                        //no need to continue
+                        return;
+                	}
+                	
+                	//stop the timer so the time saved is exact
+                	getPlayer().getTimer().pause();
+                	
+                	//the level is complete, so there is no progress to continue
+                	Progress.delete(getScreen().getPanel().getActivity());
+                	
                 	//save the time (if better time found or not exist)
                 	final boolean result = getScorecard().update(
                 		getLevels().getLevelSelect().getLevelIndex(), 
@@ -399,9 +818,17 @@ public final class Game implements IGame
                 		(long)getPlayer().getTime()
                 	);
 
-                	//if an update was made update the level select screen
+                	//if an update was made update the level select screen, and save the best run
                 	if (result)
+                	{
                 		updateLevelSelect();
+                		
+                		getPlayer().getRecorder().getReplay().save(
+                			getScreen().getPanel().getActivity(), 
+                			getLevels().getKey().toString(), 
+                			getLevels().getLevelSelect().getLevelIndex()
+                		);
+                	}
                 	
                 	//mark the level as completed
                 	getLevels().getLevelSelect().setCompleted(
@@ -431,15 +858,19 @@ public final class Game implements IGame
                 else
                 {
                 	//update block location
-                    getLevels().getLevel().update();
+                    getLevels().getLevel().update(getPlayer().getSpeed().getVelocity());
                     
                     //update the controller
                     getController().update();
                     
-                    //only update the ai if debugging
-                    if (MainThread.DEBUG)
+                    //if watching the best run, play the moves that are due
+                    if (getPlayback() != null)
+                    {
+                    	getPlayback().update();
+                    }
+                    else if (MainThread.DEBUG)
                     {
-	                    //update the ai
+	                    //only update the ai if debugging
 	                    getAI().update(getPlayer(), getLevels().getLevel());
                     }
                 }
@@ -447,7 +878,13 @@ public final class Game implements IGame
 
             //if player exists update the player
             if (getPlayer() != null)
+            {
                 getPlayer().update(getLevels().getLevel());
+                
+                //if the player made a move from the queue, we can enable the undo button
+                if (getPlayer().getJournal().canUndo())
+                	getController().setEnabled();
+            }
         }
         else
         {
@@ -457,74 +894,91 @@ public final class Game implements IGame
         	//if we now have a selection, reset the player and create the level
         	if (getLevels().getLevelSelect().hasSelection())
         	{
-        		//reset the levels
-        		getLevels().reset();
-        		
-        		//reset the player position
-                getPlayer().reset(getLevels().getLevel());
-                
-                //if debugging set/reset the ai
-                if (MainThread.DEBUG)
-                {
-                	//determine which list of solved levels we need to use
-                	switch (getScreen().getScreenOptions().getIndex(OptionsScreen.ButtonKey.Difficulty))
-                	{
-	                	case 0:
-	                		getAI().setLevels(Assets.TextAiInstructionsKey.SOLVED_EASY_A);
-	                		break;
-	                		
-	                	case 1:
-	                		getAI().setLevels(Assets.TextAiInstructionsKey.SOLVED_EASY_B);
-	                		break;
-	                		
-	                	case 2:
-	                		getAI().setLevels(Assets.TextAiInstructionsKey.SOLVED_EASY_C);
-	                		break;
-	                		
-	                	case 3:
-	                		getAI().setLevels(Assets.TextAiInstructionsKey.SOLVED_EASY_D);
-	                		break;
-	                		
-	                	case 4:
-	                		getAI().setLevels(Assets.TextAiInstructionsKey.SOLVED_MEDIUM_A);
-	                		break;
-	                		
-	                	case 5:
-	                		getAI().setLevels(Assets.TextAiInstructionsKey.SOLVED_MEDIUM_B);
-	                		break;
-	                		
-	                	case 6:
-	                		getAI().setLevels(Assets.TextAiInstructionsKey.SOLVED_MEDIUM_C);
-	                		break;
-	                		
-	                	case 7:
-	                		getAI().setLevels(Assets.TextAiInstructionsKey.SOLVED_MEDIUM_D);
-	                		break;
-	                		
-	                	case 8:
-	                		getAI().setLevels(Assets.TextAiInstructionsKey.SOLVED_HARD_A);
-	                		break;
-	                		
-	                	case 9:
-	                		getAI().setLevels(Assets.TextAiInstructionsKey.SOLVED_HARD_B);
-	                		break;
-	                		
-	                	case 10:
-	                		getAI().setLevels(Assets.TextAiInstructionsKey.SOLVED_HARD_C);
-	                		break;
-	                		
-	                	case 11:
-	                		getAI().setLevels(Assets.TextAiInstructionsKey.SOLVED_HARD_D);
-	                		break;
-	                		
-                		default:
-	                		throw new Exception("Solution is missing here " + getScreen().getScreenOptions().getIndex(OptionsScreen.ButtonKey.Difficulty));
-                	}
-                	
-                	//assign the level index based on the level selection
-                	getAI().reset(getLevels().getLevelSelect().getLevelIndex());
-                }
+        		//start the selected level
+        		startLevel();
+        	}
+        }
+    }
+    
+    /**
+     * Start the level selected.<br>
+     * The level and player are reset to the start of the level
+     * @throws Exception If the solutions for the level pack are missing
+     */
+    private void startLevel() throws Exception
+    {
+        //a new level is not watched
+        this.playback = null;
+        
+        //reset the levels
+        getLevels().reset();
+        
+        //reset the player position
+        getPlayer().reset(getLevels().getLevel());
+        
+        //assign the speed selected in the options
+        getPlayer().setSpeed(Speed.values()[getScreen().getScreenOptions().getIndex(OptionsScreen.ButtonKey.Speed)]);
+        
+        //if debugging set/reset the ai
+        if (MainThread.DEBUG)
+        {
+        	//determine which list of solved levels we need to use
+        	switch (getScreen().getScreenOptions().getIndex(OptionsScreen.ButtonKey.Difficulty))
+        	{
+	        	case 0:
+	        		getAI().setLevels(Assets.TextAiInstructionsKey.SOLVED_EASY_A);
+	        		break;
+	        		
+	        	case 1:
+	        		getAI().setLevels(Assets.TextAiInstructionsKey.SOLVED_EASY_B);
+	        		break;
+	        		
+	        	case 2:
+	        		getAI().setLevels(Assets.TextAiInstructionsKey.SOLVED_EASY_C);
+	        		break;
+	        		
+	        	case 3:
+	        		getAI().setLevels(Assets.TextAiInstructionsKey.SOLVED_EASY_D);
+	        		break;
+	        		
+	        	case 4:
+	        		getAI().setLevels(Assets.TextAiInstructionsKey.SOLVED_MEDIUM_A);
+	        		break;
+	        		
+	        	case 5:
+	        		getAI().setLevels(Assets.TextAiInstructionsKey.SOLVED_MEDIUM_B);
+	        		break;
+	        		
+	        	case 6:
+	        		getAI().setLevels(Assets.TextAiInstructionsKey.SOLVED_MEDIUM_C);
+	        		break;
+	        		
+	        	case 7:
+	        		getAI().setLevels(Assets.TextAiInstructionsKey.SOLVED_MEDIUM_D);
+	        		break;
+	        		
+	        	case 8:
+	        		getAI().setLevels(Assets.TextAiInstructionsKey.SOLVED_HARD_A);
+	        		break;
+	        		
+	        	case 9:
+	        		getAI().setLevels(Assets.TextAiInstructionsKey.SOLVED_HARD_B);
+	        		break;
+	        		
+	        	case 10:
+	        		getAI().setLevels(Assets.TextAiInstructionsKey.SOLVED_HARD_C);
+	        		break;
+	        		
+	        	case 11:
+	        		getAI().setLevels(Assets.TextAiInstructionsKey.SOLVED_HARD_D);
+	        		break;
+	        		
+        		default:
+	        		throw new Exception("Solution is missing here " + getScreen().getScreenOptions().getIndex(OptionsScreen.ButtonKey.Difficulty));
         	}
+        	
+        	//assign the level index based on the level selection
+        	getAI().reset(getLevels().getLevelSelect().getLevelIndex(), getLevels().getLevel());
         }
     }
     
@@ -557,6 +1011,9 @@ public final class Game implements IGame
         
         paint = null;
         start = null;
+        pathFinder = null;
+        pushPlanner = null;
+        dirtyLevel = null;
     }
     
     /**
@@ -569,6 +1026,9 @@ public final class Game implements IGame
     {
         if (getLevels() != null)
         {
+            //render the player and blocks in between the previous and next update
+            updateRenderCoordinates();
+            
             //render level and/or selections
             getLevels().render(canvas, getScreen().getPaint());
             
@@ -3,6 +3,7 @@ package com.gamesbykevin.sokoban.game.controller;
 import com.gamesbykevin.androidframework.awt.Button;
 
 import android.graphics.Canvas;
+import android.graphics.Rect;
 import android.view.MotionEvent;
 
 import com.gamesbykevin.androidframework.resources.Audio;
@@ -41,6 +42,9 @@ public class Controller implements IController
     //is the undo button enabled
     private boolean enabled = false;
     
+    //did the undo button change since the previous frame
+    private boolean changed = false;
+    
     /**
      * Default Constructor
      * @param game Object game object reference
@@ -263,11 +267,12 @@ public class Controller implements IController
 	    				//make sure the button is enabled
 	    				if (this.enabled)
 	    				{
-	    					//disable button
-	    					setDisabled();
-	    					
 	    					//undo the previous move
 	    					getGame().undo();
+	    					
+	    					//disable button if there are no more moves to undo
+	    					if (!getGame().getPlayer().getJournal().canUndo())
+	    						setDisabled();
 	    				}
 	    				break;
 	    				
@@ -286,6 +291,9 @@ public class Controller implements IController
      */
     public void setEnabled()
     {
+    	if (!this.enabled)
+    		this.changed = true;
+    	
     	this.enabled = true;
     }
     
@@ -294,9 +302,34 @@ public class Controller implements IController
      */
     public void setDisabled()
     {
+    	if (this.enabled)
+    		this.changed = true;
+    	
     	this.enabled = false;
     }
     
+    /**
+     * Add the area of the buttons that changed since the previous frame.<br>
+     * The undo button can change when a move waiting is made, not only when touched
+     * @param dirty The area that needs to be rendered again
+     */
+    public void addDirty(final Rect dirty)
+    {
+    	if (changed && buttons != null)
+    	{
+    		final Button button = buttons.get(Assets.ImageGameKey.UndoEnabled);
+    		
+    		dirty.union(
+    			(int)Math.floor(button.getX()), 
+    			(int)Math.floor(button.getY()), 
+    			(int)Math.ceil(button.getX() + button.getWidth()), 
+    			(int)Math.ceil(button.getY() + button.getHeight())
+    		);
+    	}
+    	
+    	this.changed = false;
+    }
+    
     /**
      * Recycle objects
      */
@@ -5,6 +5,8 @@
  */
 package com.gamesbykevin.sokoban.level;
 
+import java.util.List;
+
 /**
  * Required methods for level
  * @author GOD
@@ -12,14 +14,16 @@ package com.gamesbykevin.sokoban.level;
 public interface ILevel 
 {
     /**
-     * Load the level with the given line
-     * @param line The line containing characters for the layout of our level
-     * @throws Exception if problem loading the current line
+     * Load the level from the specified range of lines
+     * @param lines The lines of the text file containing the level
+     * @param lineStart The line where the level starts
+     * @param lineEnd The line where the level ends
      */
-    public void load(final String line) throws Exception;
+    public void load(final List<String> lines, final int lineStart, final int lineEnd);
     
     /**
      * Logic to update level
+     * @param velocity The distance the blocks move per update (columns/rows)
      */
-    public void update();
+    public void update(final double velocity);
 }
\ No newline at end of file
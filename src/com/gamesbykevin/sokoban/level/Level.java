@@ -1,6 +1,8 @@
 package com.gamesbykevin.sokoban.level;
 
+import android.graphics.Bitmap;
 import android.graphics.Canvas;
+import android.graphics.Rect;
 
 import com.gamesbykevin.androidframework.base.Cell;
 import com.gamesbykevin.androidframework.resources.Audio;
@@ -11,11 +13,11 @@ import com.gamesbykevin.sokoban.level.tile.Block;
 import com.gamesbykevin.sokoban.level.tile.Tile;
 import com.gamesbykevin.sokoban.level.tile.TileHelper;
 import com.gamesbykevin.sokoban.panel.GamePanel;
-import com.gamesbykevin.sokoban.player.Player;
 import com.gamesbykevin.sokoban.target.Target;
-import com.gamesbykevin.sokoban.thread.MainThread;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 
@@ -29,13 +31,13 @@ public final class Level implements Disposable, ILevel
     private Tile.Type[][] key;
     
     //the character key values
-    protected static final String KEY_WALL = "#";
-    protected static final String KEY_PLAYER = "@";
-    protected static final String KEY_PLAYER_ON_GOAL = "+";
-    protected static final String KEY_BLOCK = "$";
-    protected static final String KEY_BLOCK_ON_GOAL = "*";
-    protected static final String KEY_GOAL = ".";
-    protected static final String KEY_FLOOR = " ";
+    protected static final char KEY_WALL = '#';
+    protected static final char KEY_PLAYER = '@';
+    protected static final char KEY_PLAYER_ON_GOAL = '+';
+    protected static final char KEY_BLOCK = '$';
+    protected static final char KEY_BLOCK_ON_GOAL = '*';
+    protected static final char KEY_GOAL = '.';
+    protected static final char KEY_FLOOR = ' ';
     
     //the player start location
     private Cell start;
@@ -46,9 +48,32 @@ public final class Level implements Disposable, ILevel
     //the current location/destination of the blocks
     private List<Target> current;
     
+    //the index of the block headed to each cell (row * cols + col), -1 if there is no block
+    private int[] occupancy;
+    
+    //the number of blocks on a goal, and the number of blocks headed to a new location
+    private int goals = 0, moving = 0;
+    
     //the start coordinate
     private int startX = 0, startY = 0;
     
+    //how far we are between the previous update and the next (0 - 1)
+    private float interpolation = 0;
+    
+    //the floor, walls, and goals rendered once, since they never change
+    private Bitmap layer;
+    
+    /**
+     * The most pixels we will allow for the static layer, larger levels will render each tile instead
+     */
+    private static final int LAYER_MAX_PIXELS = GamePanel.WIDTH * GamePanel.HEIGHT * 4;
+    
+    //the part of the static layer that is visible, and where it is rendered on the screen
+    private final Rect source = new Rect(), destination = new Rect();
+    
+    //the range of columns and rows visible on the screen
+    private int visibleStartCol, visibleEndCol, visibleStartRow, visibleEndRow;
+    
     //the dimensions of the level where we could render the entire level on the screen
     protected static final int SINGLE_SCREEN_MAX_COLS = 7;
     
@@ -69,6 +94,10 @@ public final class Level implements Disposable, ILevel
         
         //create a new list for the current/destination
         this.current = new ArrayList<Target>();
+        
+        //there are no blocks yet
+        this.occupancy = new int[tracker.getRows() * tracker.getCols()];
+        Arrays.fill(this.occupancy, -1);
     }
     
     /**
@@ -101,6 +130,42 @@ public final class Level implements Disposable, ILevel
         return this.startY;
     }
     
+    /**
+     * Assign the interpolation used to render the blocks in between updates
+     * @param interpolation How far we are between the previous update and the next (0 - 1)
+     */
+    public void setInterpolation(final float interpolation)
+    {
+        this.interpolation = interpolation;
+    }
+    
+    /**
+     * Get the interpolation
+     * @return How far we are between the previous update and the next (0 - 1)
+     */
+    public float getInterpolation()
+    {
+        return this.interpolation;
+    }
+    
+    /**
+     * Get the columns
+     * @return The number of columns in this level
+     */
+    public int getCols()
+    {
+        return getKey()[0].length;
+    }
+    
+    /**
+     * Get the rows
+     * @return The number of rows in this level
+     */
+    public int getRows()
+    {
+        return getKey().length;
+    }
+    
     /**
      * Get the key
      * @return The array representing the layout of the level
@@ -130,22 +195,67 @@ public final class Level implements Disposable, ILevel
     
     /**
      * Get the block that matches the specified (col, row)<br>
+     * The destination of the block is checked, so a block still moving will belong to the location it is headed
      * @param col Column
      * @param row Row
      * @return The block that has the matching location, if no match is found null is returned
      */
     public Target getBlock(final int col, final int row)
     {
-        //check each block
-        for (Target block : getCurrent())
+        //if out of range there is no block
+        if (col < 0 || col >= getKey()[0].length || row < 0 || row >= getKey().length)
+            return null;
+        
+        //the occupancy grid has the block headed here
+        final int index = occupancy[(row * getKey()[0].length) + col];
+        
+        return (index < 0) ? null : getCurrent().get(index);
+    }
+    
+    /**
+     * Update the occupancy grid for a block headed to a new location.<br>
+     * The cell the block was headed to is cleared, only if no other block has been assigned there since
+     * @param block The block that is moving
+     * @param col Column of the new destination
+     * @param row Row of the new destination
+     */
+    private void setOccupancy(final Target block, final int col, final int row)
+    {
+        final int cols = getKey()[0].length;
+        final int previous = ((int)block.getDestination().getRow() * cols) + (int)block.getDestination().getCol();
+        
+        //the block was headed here, so this is the index of the block
+        int index = occupancy[previous];
+        
+        if (index >= 0 && getCurrent().get(index) == block)
+        {
+            occupancy[previous] = -1;
+        }
+        else
         {
-            //if location matches we have a block
-            if (block.getCol() == col && block.getRow() == row)
-                return block;
+            //another block was assigned there while restoring, so check the list
+            index = getCurrent().indexOf(block);
         }
         
-        //there is no block here
-        return null;
+        occupancy[(row * cols) + col] = index;
+    }
+    
+    /**
+     * Move the block to the specified location.<br>
+     * The block will move there over the next updates, the location is assigned as the destination
+     * @param block The block we want to move
+     * @param col Column
+     * @param row Row
+     */
+    public void moveBlock(final Target block, final int col, final int row)
+    {
+        final boolean arrived = block.hasDestination();
+        
+        setOccupancy(block, col, row);
+        
+        //the block is headed here
+        block.setDestination(col, row);
+        setMoving(block, arrived);
     }
     
     /**
@@ -181,40 +291,113 @@ public final class Level implements Disposable, ILevel
      */
     public boolean hasDestination()
     {
-        //check each block
-        for (Target block : getCurrent())
-        {
-        	//if at least 1 block is not at the destination return false
-            if (!block.hasDestination())
-            	return false;
-        }
-    	
-        //all blocks are found to be at their destination
-        return true;
+        //the counter is updated whenever a block starts moving or arrives
+        return (moving == 0);
     }
     
     /**
-     * Undo the previous move
+     * Has the level been completed?
+     * @return true if all blocks are at a goal, false otherwise
      */
-    public void undo()
+    public boolean hasCompleted()
     {
-        //check each block
-        for (Target block : getCurrent())
+        //the counter is updated whenever a block is flagged on or off a goal
+        return (goals == getCurrent().size());
+    }
+    
+    /**
+     * Flag the block on a goal, and update the number of blocks on a goal
+     * @param block The block
+     * @param goal true = yes, false = no
+     */
+    private void setGoal(final Target block, final boolean goal)
+    {
+        if (block.hasGoal() != goal)
         {
-        	block.undo();
-        	
-        	checkGoal(block);
+            goals += (goal) ? 1 : -1;
+            block.setGoal(goal);
         }
     }
     
+    /**
+     * Update the number of blocks headed to a new location after the block has changed
+     * @param block The block
+     * @param arrived Was the block at its destination before it changed
+     */
+    private void setMoving(final Target block, final boolean arrived)
+    {
+        if (arrived && !block.hasDestination())
+            moving++;
+        if (!arrived && block.hasDestination())
+            moving--;
+    }
+    
+    /**
+     * Place the block at the specified location.<br>
+     * The block will not move there, it will be assigned immediately
+     * @param block The block we want to place
+     * @param col Column
+     * @param row Row
+     */
+    public void placeBlock(final Target block, final int col, final int row)
+    {
+        final boolean arrived = block.hasDestination();
+        
+        setOccupancy(block, col, row);
+        
+        //assign the location
+        block.setCol(col);
+        block.setRow(row);
+        
+        //the block is now at its destination
+        block.setDestination(col, row);
+        setMoving(block, arrived);
+        
+        //check if the block is on a goal
+        checkGoal(block);
+    }
+    
+    /**
+     * Restore the block at the specified location.<br>
+     * Same as placeBlock() except no sound effect is played, used when restoring a previous state
+     * @param block The block we want to restore
+     * @param col Column
+     * @param row Row
+     */
+    public void restoreBlock(final Target block, final int col, final int row)
+    {
+        final boolean arrived = block.hasDestination();
+        
+        setOccupancy(block, col, row);
+        
+        //assign the location
+        block.setCol(col);
+        block.setRow(row);
+        
+        //the block is now at its destination
+        block.setDestination(col, row);
+        setMoving(block, arrived);
+        
+        //flag if the block is on a goal
+        setGoal(block, TileHelper.isGoal(getType(col, row)));
+    }
+    
     /**
      * Update the location of the blocks if not at their target
+     * @param velocity The distance the blocks move per update (columns/rows)
      */
-    public void update()
+    public void update(final double velocity)
     {
-    	//velocity will depend if debugging
-    	final double velocity = (MainThread.DEBUG) ? Player.VELOCITY_DEBUG : Player.VELOCITY; 
-    	
+        //store the location of each block before it changes, so we can render in between updates
+        for (Target block : getCurrent())
+        {
+            block.setPrevious();
+        }
+        
+        //no block is headed to a new location
+        if (moving == 0)
+            return;
+        
         //check each block location
         for (Target block : getCurrent())
         {
@@ -266,12 +449,11 @@ public final class Level implements Disposable, ILevel
                 }
                 
                 //if the block is now at its destination, check if it is on a goal
-                checkGoal(block);
-            }
-            else
-            {
-                //if the block is now at its destination, check if it is on a goal
-                block.setGoal(TileHelper.isGoal(getType((int)block.getCol(), (int)block.getRow())));
+                if (block.hasDestination())
+                {
+                    moving--;
+                    checkGoal(block);
+                }
             }
         }
     }
@@ -284,26 +466,84 @@ public final class Level implements Disposable, ILevel
             if (TileHelper.isGoal(getType((int)block.getCol(), (int)block.getRow())))
             {
                 //flag at goal
-                block.setGoal(true);
+                setGoal(block, true);
                 
                 //play sound effect
-                Audio.play(LevelHelper.hasCompleted(this) ? Assets.AudioGameKey.LevelComplete : Assets.AudioGameKey.Goal);
+                Audio.play(hasCompleted() ? Assets.AudioGameKey.LevelComplete : Assets.AudioGameKey.Goal);
             }
             else
             {
                 //this block is not on a goal
-                block.setGoal(false);
+                setGoal(block, false);
             }
         }
     }
     
+    /**
+     * Render the floor, walls, and goals once to the static layer.<br>
+     * If the level is too large, or there is not enough memory, the tiles will be rendered each frame instead
+     * @param tiles List of tiles to render our level
+     * @throws Exception
+     */
+    public void createLayer(final HashMap<Tile.Type, Tile> tiles) throws Exception
+    {
+        //remove the existing layer (if any)
+        recycleLayer();
+        
+        //the size of the layer
+        final int width = getCols() * TileHelper.DEFAULT_DIMENSION;
+        final int height = getRows() * TileHelper.DEFAULT_DIMENSION;
+        
+        //if the level is too large we won't create the layer
+        if (width * height > LAYER_MAX_PIXELS)
+            return;
+        
+        try
+        {
+            this.layer = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        }
+        catch (OutOfMemoryError e)
+        {
+            //not enough memory, so we will render each tile instead
+            this.layer = null;
+            return;
+        }
+        
+        //render each tile relative to the start of the layer
+        final Canvas canvas = new Canvas(layer);
+        
+        for (int row = 0; row < getRows(); row++)
+        {
+            for (int col = 0; col < getCols(); col++)
+            {
+                renderTile(canvas, tiles, col, row, col * TileHelper.DEFAULT_DIMENSION, row * TileHelper.DEFAULT_DIMENSION);
+            }
+        }
+    }
+    
+    /**
+     * Recycle the static layer (if it exists)
+     */
+    public void recycleLayer()
+    {
+        if (layer != null)
+        {
+            layer.recycle();
+            layer = null;
+        }
+    }
+    
     @Override
     public void dispose()
     {
+        recycleLayer();
+        
         if (key != null)
             key = null;
         if (start != null)
             start = null;
+        if (occupancy != null)
+            occupancy = null;
         
         if (blocks != null)
         {
@@ -328,114 +568,120 @@ public final class Level implements Disposable, ILevel
     }
     
     /**
-     * Load the level based on the characters in the specified String line.<br>
-     * When we check the rows in the level key to determine which row we populate this line to
-     * @param line The given line containing characters that will determine the level
-     * @throws Exception
+     * Load the level from the specified range of lines in a single pass.<br>
+     * Each line is a row in the level, every character is checked once and assigned directly to the key
+     * @param lines The lines of the text file containing the level
+     * @param lineStart The line where the level starts
+     * @param lineEnd The line where the level ends
      */
-    public void load(final String line) throws Exception
+    public void load(final List<String> lines, final int lineStart, final int lineEnd)
     {
-        for (int row = 0; row < getKey().length; row++)
+        for (int row = 0; row < getKey().length && lineStart + row <= lineEnd; row++)
         {
-            //if this row was already loaded, skip it
-            if (!hasEmptyRow(row))
-                continue;
+            //get the current line
+            final String line = lines.get(lineStart + row);
             
+            //the floor only begins once we hit a wall
             boolean begin = false;
             
             //check each character
-            for (int index = 0; index < line.length(); index++)
+            for (int col = 0; col < line.length(); col++)
             {
-                //check the current character
-                String character = line.substring(index, index + 1);
+                begin = load(line.charAt(col), col, row, begin);
+            }
+        }
+    }
+    
+    /**
+     * Load the level from a binary level pack in a single pass.<br>
+     * Each row is a list of runs, the same character repeated (see Pack)
+     * @param buffer The binary level pack, the bytes are read directly without changing the position
+     * @param offset The position in the buffer where the level starts
+     */
+    public void load(final ByteBuffer buffer, final int offset)
+    {
+        //the current position in the buffer
+        int position = offset;
+        
+        for (int row = 0; row < getKey().length; row++)
+        {
+            //the floor only begins once we hit a wall
+            boolean begin = false;
+            
+            //each row has a run for every column
+            for (int col = 0; col < getKey()[0].length; )
+            {
+                final byte run = buffer.get(position++);
+                final char character = Pack.getCharacter(run);
                 
-                if (character.equals(KEY_WALL))
-                {
-                    //we hit wall so flag start
-                    begin = true;
-                    
-                    //assign key
-                    getKey()[row][index] = Tile.Type.Wall;
-                }
-                else if (character.equals(KEY_PLAYER))
+                for (int length = Pack.getLength(run); length > 0; length--, col++)
                 {
-                    //store start location for player
-                    start = new Cell(index, row);
-                    
-                    //assign key
-                    getKey()[row][index] = Tile.Type.Floor;
-                }
-                else if (character.equals(KEY_PLAYER_ON_GOAL))
-                {
-                    //store start location
-                    start = new Cell(index, row);
-                    
-                    //assign key
-                    getKey()[row][index] = Tile.Type.Goal;
-                }
-                else if (character.equals(KEY_BLOCK))
-                {
-                    //store block location
-                    blocks.add(new Cell(index, row));
-                    
-                    //add the current location of this block
-                    current.add(new Target(index, row));
-                    
-                    //assign key
-                    getKey()[row][index] = Tile.Type.Floor;
-                }
-                else if (character.equals(KEY_BLOCK_ON_GOAL))
-                {
-                    //store block location
-                    blocks.add(new Cell(index, row));
-                    
-                    //add the current location of this block
-                    current.add(new Target(index, row));
-                    
-                    //assign key
-                    getKey()[row][index] = Tile.Type.Goal;
-                }
-                else if (character.equals(KEY_GOAL))
-                {
-                    //assign key
-                    getKey()[row][index] = Tile.Type.Goal;
-                }
-                else if (character.equals(KEY_FLOOR))
-                {
-                    //there can't be a floor on the first or last row
-                    if (row == 0 || row == getKey().length - 1)
-                        continue;
-                    
-                    //if we already found a wall, then this will be a floor
-                    if (begin)
-                    {
-                        //assign key
-                        getKey()[row][index] = Tile.Type.Floor;
-                    }
+                    begin = load(character, col, row, begin);
                 }
             }
-            
-            //now that line has loaded, no need to continue
-            break;
         }
     }
     
     /**
-     * Is this an empty row
-     * @param row The specified row to check
-     * @return true if all objects are null in the specified row, otherwise false
+     * Load a single character of the level
+     * @param character The character at the location
+     * @param col Column
+     * @param row Row
+     * @param begin Did we already hit a wall in this row
+     * @return true if we have hit a wall in this row, false otherwise
      */
-    private boolean hasEmptyRow(final int row)
+    private boolean load(final char character, final int col, final int row, final boolean begin)
     {
-        for (int col = 0; col < key[row].length; col++)
+        switch (character)
         {
-            //objet exists return false
-            if (key[row][col] != null)
-                return false;
+            case KEY_WALL:
+                //we hit wall so flag start
+                getKey()[row][col] = Tile.Type.Wall;
+                return true;
+                
+            case KEY_PLAYER:
+                //store start location for player
+                start = new Cell(col, row);
+                getKey()[row][col] = Tile.Type.Floor;
+                break;
+                
+            case KEY_PLAYER_ON_GOAL:
+                //store start location for player
+                start = new Cell(col, row);
+                getKey()[row][col] = Tile.Type.Goal;
+                break;
+                
+            case KEY_BLOCK:
+                //store block location, and the current location of this block
+                blocks.add(new Cell(col, row));
+                occupancy[(row * getKey()[0].length) + col] = current.size();
+                current.add(new Target(col, row));
+                getKey()[row][col] = Tile.Type.Floor;
+                break;
+                
+            case KEY_BLOCK_ON_GOAL:
+                //store block location, and the current location of this block
+                blocks.add(new Cell(col, row));
+                occupancy[(row * getKey()[0].length) + col] = current.size();
+                current.add(new Target(col, row));
+                getKey()[row][col] = Tile.Type.Goal;
+                
+                //the block starts on a goal
+                setGoal(current.get(current.size() - 1), true);
+                break;
+                
+            case KEY_GOAL:
+                getKey()[row][col] = Tile.Type.Goal;
+                break;
+                
+            case KEY_FLOOR:
+                //if we already found a wall, then this will be a floor, there can't be a floor on the first or last row
+                if (begin && row > 0 && row < getKey().length - 1)
+                    getKey()[row][col] = Tile.Type.Floor;
+                break;
         }
         
-        //yes all objects are null
-        return true;
+        return begin;
     }
     
     /**
@@ -446,47 +692,37 @@ public final class Level implements Disposable, ILevel
      */
     public void render(final Canvas canvas, final HashMap<Tile.Type, Tile> tiles) throws Exception
     {
-        for (int row = 0; row < getKey().length; row++)
+        //determine which columns and rows are on the screen
+        updateVisibleRange();
+        
+        //if nothing is on the screen, there is nothing to render
+        if (visibleStartCol > visibleEndCol || visibleStartRow > visibleEndRow)
+            return;
+        
+        if (layer != null)
+        {
+            //only the visible part of the layer is rendered
+            source.set(
+                visibleStartCol * TileHelper.DEFAULT_DIMENSION, 
+                visibleStartRow * TileHelper.DEFAULT_DIMENSION, 
+                (visibleEndCol + 1) * TileHelper.DEFAULT_DIMENSION, 
+                (visibleEndRow + 1) * TileHelper.DEFAULT_DIMENSION
+            );
+            destination.set(source);
+            destination.offset(getStartX(), getStartY());
+            
+            //the floor, walls, and goals have already been rendered
+            canvas.drawBitmap(layer, source, destination, null);
+        }
+        else
         {
-            for (int col = 0; col < getKey()[0].length; col++)
+            //only check the tiles that are on the screen
+            for (int row = visibleStartRow; row <= visibleEndRow; row++)
             {
-                final int x = (int)LevelHelper.getX(this, col);
-                final int y = (int)LevelHelper.getY(this, row);
-                
-                //skip if null
-                if (getKey()[row][col] == null)
-                    continue;
-                
-                //render floor everywhere
-                Tile tile = tiles.get(Tile.Type.Floor);
-                
-                //assign coordinates
-                tile.setX(x);
-                tile.setY(y);
-                
-              //make sure that we aren't rendering items that aren't on the screen
-                if (tile.getX() < -tile.getWidth() || tile.getX() > GamePanel.WIDTH)
-                	continue;
-                if (tile.getY() < -tile.getHeight() || tile.getY() > GamePanel.HEIGHT)
-                	continue;
-                
-                //render the floor
-                tile.render(canvas);
-                
-                //get the assigned tile by its type
-                tile = tiles.get(getKey()[row][col]);
-                
-                //render tile accordingly
-                switch (tile.getType())
+                for (int col = visibleStartCol; col <= visibleEndCol; col++)
                 {
-                    case Wall:
-                    case Goal:
-                    case Block:
-                	default:
-                        tile.setX(x + (TileHelper.DEFAULT_DIMENSION / 2) - (tile.getWidth() / 2));
-                        tile.setY(y + (TileHelper.DEFAULT_DIMENSION / 2) - (tile.getHeight() / 2));
-                        tile.render(canvas);
-                        break;
+                    //render the tile
+                    renderTile(canvas, tiles, col, row, (int)LevelHelper.getX(this, col), (int)LevelHelper.getY(this, row));
                 }
             }
         }
@@ -497,20 +733,20 @@ public final class Level implements Disposable, ILevel
         //render blocks for each location
         for (Target cell : getCurrent())
         {
-            //get the (x,y) location
-            final int x = (int)LevelHelper.getX(this, cell.getCol());
-            final int y = (int)LevelHelper.getY(this, cell.getRow());
-            
-            //assign the location
-            tile.setX(x + (TileHelper.DEFAULT_DIMENSION / 2) - (tile.getWidth() / 2));
-            tile.setY(y + (TileHelper.DEFAULT_DIMENSION / 2) - (tile.getHeight() / 2));
+            //the location in between the previous and current update
+            final double col = cell.getRenderCol(getInterpolation());
+            final double row = cell.getRenderRow(getInterpolation());
             
-            //make sure that we aren't rendering items that aren't on the screen
-            if (tile.getX() < -tile.getWidth() || tile.getX() > GamePanel.WIDTH)
+            //make sure that we aren't rendering blocks that aren't on the screen
+            if (col <= visibleStartCol - 1 || col >= visibleEndCol + 1)
             	continue;
-            if (tile.getY() < -tile.getHeight() || tile.getY() > GamePanel.HEIGHT)
+            if (row <= visibleStartRow - 1 || row >= visibleEndRow + 1)
             	continue;
             
+            //assign the location
+            tile.setX((int)LevelHelper.getX(this, col) + (TileHelper.DEFAULT_DIMENSION / 2) - (tile.getWidth() / 2));
+            tile.setY((int)LevelHelper.getY(this, row) + (TileHelper.DEFAULT_DIMENSION / 2) - (tile.getHeight() / 2));
+            
             //default block animation
             tile.getSpritesheet().setKey(cell.hasGoal() ? Block.State.Alternate : Block.State.Default);
             
@@ -518,4 +754,86 @@ public final class Level implements Disposable, ILevel
             tile.render(canvas);
         }
     }
+    
+    /**
+     * Add the area of each block that moved since the previous update.<br>
+     * The area covers the previous and current location, so every location rendered in between is included
+     * @param dirty The area that needs to be rendered again
+     */
+    public void addDirty(final Rect dirty)
+    {
+        for (Target block : getCurrent())
+        {
+            //skip blocks that haven't moved
+            if (block.getPreviousCol() == block.getCol() && block.getPreviousRow() == block.getRow())
+                continue;
+            
+            dirty.union(
+                (int)Math.floor(LevelHelper.getX(this, Math.min(block.getPreviousCol(), block.getCol()))), 
+                (int)Math.floor(LevelHelper.getY(this, Math.min(block.getPreviousRow(), block.getRow()))), 
+                (int)Math.ceil(LevelHelper.getX(this, Math.max(block.getPreviousCol(), block.getCol()) + 1)), 
+                (int)Math.ceil(LevelHelper.getY(this, Math.max(block.getPreviousRow(), block.getRow()) + 1))
+            );
+        }
+    }
+    
+    /**
+     * Calculate the range of columns and rows that are on the screen, from the start location and tile size
+     */
+    private void updateVisibleRange()
+    {
+        //the first column/row that is at least partially on the screen
+        this.visibleStartCol = Math.max(0, floorDiv(-getStartX(), TileHelper.DEFAULT_DIMENSION));
+        this.visibleStartRow = Math.max(0, floorDiv(-getStartY(), TileHelper.DEFAULT_DIMENSION));
+        
+        //the last column/row that is at least partially on the screen
+        this.visibleEndCol = Math.min(getCols() - 1, floorDiv(GamePanel.WIDTH - getStartX() - 1, TileHelper.DEFAULT_DIMENSION));
+        this.visibleEndRow = Math.min(getRows() - 1, floorDiv(GamePanel.HEIGHT - getStartY() - 1, TileHelper.DEFAULT_DIMENSION));
+    }
+    
+    /**
+     * Divide rounding down, even when the value is negative
+     * @param value The value to divide
+     * @param divisor The divisor, must be positive
+     * @return The largest whole number less than or equal to value / divisor
+     */
+    private static int floorDiv(final int value, final int divisor)
+    {
+        return (value >= 0) ? (value / divisor) : -((-value + divisor - 1) / divisor);
+    }
+    
+    /**
+     * Render the floor and the tile at the specified location
+     * @param canvas Object used to write pixel data
+     * @param tiles List of tiles to render our level
+     * @param col Column
+     * @param row Row
+     * @param x x-coordinate where the tile is rendered
+     * @param y y-coordinate where the tile is rendered
+     * @throws Exception
+     */
+    private void renderTile(final Canvas canvas, final HashMap<Tile.Type, Tile> tiles, final int col, final int row, final int x, final int y) throws Exception
+    {
+        //skip if null
+        if (getKey()[row][col] == null)
+            return;
+        
+        //render floor everywhere
+        Tile tile = tiles.get(Tile.Type.Floor);
+        
+        //assign coordinates
+        tile.setX(x);
+        tile.setY(y);
+        
+        //render the floor
+        tile.render(canvas);
+        
+        //get the assigned tile by its type
+        tile = tiles.get(getKey()[row][col]);
+        
+        //center the tile in the cell
+        tile.setX(x + (TileHelper.DEFAULT_DIMENSION / 2) - (tile.getWidth() / 2));
+        tile.setY(y + (TileHelper.DEFAULT_DIMENSION / 2) - (tile.getHeight() / 2));
+        tile.render(canvas);
+    }
 }
\ No newline at end of file
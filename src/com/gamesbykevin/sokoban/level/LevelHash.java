@@ -0,0 +1,387 @@
+package com.gamesbykevin.sokoban.level;
+
+import com.gamesbykevin.androidframework.base.Cell;
+import com.gamesbykevin.sokoban.level.tile.Tile;
+
+/**
+ * The canonical hash of a level, calculated from the parsed board so the same level in different files has the same hash.<br>
+ * Only the area the player can reach and the walls around it are included, so padding and trailing spaces don't matter.<br>
+ * The level can also be rotated and mirrored (8 ways), the smallest hash is used and we remember which way produced it.
+ * @author GOD
+ */
+public final class LevelHash
+{
+    /**
+     * The number of ways a level can be rotated and mirrored
+     */
+    public static final int TRANSFORMS = 8;
+
+    /**
+     * The level as it is, no rotation or mirror
+     */
+    public static final int TRANSFORM_NONE = 0;
+
+    /**
+     * The offset basis of the hash (FNV-1a 64 bit)
+     */
+    private static final long HASH_OFFSET = 0xCBF29CE484222325L;
+
+    /**
+     * The prime of the hash (FNV-1a 64 bit)
+     */
+    private static final long HASH_PRIME = 0x100000001B3L;
+
+    /**
+     * The code of each cell, anything outside of the area is 0
+     */
+    private static final byte CODE_WALL = 1, CODE_FLOOR = 2, CODE_GOAL = 3;
+
+    /**
+     * Added to the code when the cell has a block or the player
+     */
+    private static final byte CODE_BLOCK = 4, CODE_PLAYER = 8;
+
+    /**
+     * The moves in the ai instructions
+     */
+    private static final char LEFT = 'l', RIGHT = 'r', UP = 'u', DOWN = 'd';
+
+    //the canonical hash
+    private final long hash;
+
+    //the rotation and mirror that produced the hash
+    private final int transform;
+
+    private LevelHash(final long hash, final int transform)
+    {
+        this.hash = hash;
+        this.transform = transform;
+    }
+
+    /**
+     * Get the hash
+     * @return The canonical hash of the level
+     */
+    public long getHash()
+    {
+        return this.hash;
+    }
+
+    /**
+     * Get the transform
+     * @return The rotation and mirror (0 - 7) applied to the level to produce the hash
+     */
+    public int getTransform()
+    {
+        return this.transform;
+    }
+
+    /**
+     * Calculate the canonical hash of the level in the starting position
+     * @param level The parsed level
+     * @param symmetry Do we include the rotated and mirrored versions of the level
+     * @return The canonical hash, null if the level has no player (e.g. a title line read as a level)
+     */
+    public static LevelHash create(final Level level, final boolean symmetry)
+    {
+        final int cols = level.getCols();
+        final int rows = level.getRows();
+
+        //without a player the level can't be played, so it is never the same as another level
+        final Cell start = level.getStart();
+
+        if (start == null)
+            return null;
+
+        //find the area the player can reach
+        final boolean[] inside = new boolean[cols * rows];
+        fill(level, inside, (int)start.getCol(), (int)start.getRow());
+
+        //the walls around the area
+        final boolean[] walls = new boolean[cols * rows];
+        int minCol = cols, minRow = rows, maxCol = -1, maxRow = -1;
+
+        for (int row = 0; row < rows; row++)
+        {
+            for (int col = 0; col < cols; col++)
+            {
+                final boolean wall = (level.getType(col, row) == Tile.Type.Wall) && isNextTo(inside, cols, rows, col, row);
+                walls[(row * cols) + col] = wall;
+
+                //track the size of the area
+                if (wall || inside[(row * cols) + col])
+                {
+                    minCol = Math.min(minCol, col);
+                    minRow = Math.min(minRow, row);
+                    maxCol = Math.max(maxCol, col);
+                    maxRow = Math.max(maxRow, row);
+                }
+            }
+        }
+
+        //the code of each cell, only the area we need
+        final int width = maxCol - minCol + 1;
+        final int height = maxRow - minRow + 1;
+        final byte[] codes = new byte[width * height];
+
+        for (int row = 0; row < height; row++)
+        {
+            for (int col = 0; col < width; col++)
+            {
+                final int index = ((row + minRow) * cols) + col + minCol;
+
+                if (walls[index])
+                {
+                    codes[(row * width) + col] = CODE_WALL;
+                }
+                else if (inside[index])
+                {
+                    codes[(row * width) + col] = (level.getType(col + minCol, row + minRow) == Tile.Type.Goal) ? CODE_GOAL : CODE_FLOOR;
+                }
+            }
+        }
+
+        for (Cell block : level.getBlocks())
+        {
+            final int col = (int)block.getCol() - minCol;
+            final int row = (int)block.getRow() - minRow;
+
+            //a block outside of the area can never be moved, so it doesn't matter
+            if (col >= 0 && col < width && row >= 0 && row < height)
+                codes[(row * width) + col] += CODE_BLOCK;
+        }
+
+        codes[(((int)start.getRow() - minRow) * width) + (int)start.getCol() - minCol] += CODE_PLAYER;
+
+        //use the smallest hash of each rotation and mirror
+        long best = hash(codes, width, height, TRANSFORM_NONE);
+        int transform = TRANSFORM_NONE;
+
+        for (int i = 1; symmetry && i < TRANSFORMS; i++)
+        {
+            final long tmp = hash(codes, width, height, i);
+
+            if (tmp < best)
+            {
+                best = tmp;
+                transform = i;
+            }
+        }
+
+        return new LevelHash(best, transform);
+    }
+
+    /**
+     * Mark every cell the player can reach, blocks are ignored
+     * @param level The parsed level
+     * @param inside The cells the player can reach
+     * @param col Start column
+     * @param row Start row
+     */
+    private static void fill(final Level level, final boolean[] inside, final int col, final int row)
+    {
+        final int cols = level.getCols();
+        final int[] stack = new int[inside.length];
+        int size = 0;
+
+        inside[(row * cols) + col] = true;
+        stack[size++] = (row * cols) + col;
+
+        while (size > 0)
+        {
+            final int index = stack[--size];
+            final int c = index % cols;
+            final int r = index / cols;
+
+            for (int direction = 0; direction < 4; direction++)
+            {
+                final int nextCol = c + ((direction == 0) ? 1 : (direction == 1) ? -1 : 0);
+                final int nextRow = r + ((direction == 2) ? 1 : (direction == 3) ? -1 : 0);
+                final Tile.Type type = level.getType(nextCol, nextRow);
+
+                //we can move anywhere that isn't a wall or outside of the level
+                if (type == null || type == Tile.Type.Wall || inside[(nextRow * cols) + nextCol])
+                    continue;
+
+                inside[(nextRow * cols) + nextCol] = true;
+                stack[size++] = (nextRow * cols) + nextCol;
+            }
+        }
+    }
+
+    /**
+     * Is the cell next to (or diagonal to) the area the player can reach?
+     * @param inside The cells the player can reach
+     * @param cols The number of columns
+     * @param rows The number of rows
+     * @param col Column
+     * @param row Row
+     * @return true if a neighbor is inside, false otherwise
+     */
+    private static boolean isNextTo(final boolean[] inside, final int cols, final int rows, final int col, final int row)
+    {
+        for (int r = Math.max(0, row - 1); r <= Math.min(rows - 1, row + 1); r++)
+        {
+            for (int c = Math.max(0, col - 1); c <= Math.min(cols - 1, col + 1); c++)
+            {
+                if (inside[(r * cols) + c])
+                    return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Hash the cells after they are rotated and mirrored
+     * @param codes The code of each cell
+     * @param width The number of columns
+     * @param height The number of rows
+     * @param transform The rotation and mirror (0 - 7)
+     * @return The hash
+     */
+    private static long hash(final byte[] codes, final int width, final int height, final int transform)
+    {
+        //a quarter turn swaps the columns and rows
+        final boolean swap = (transform % 2 == 1);
+        final int cols = swap ? height : width;
+        final int rows = swap ? width : height;
+
+        long hash = HASH_OFFSET;
+        hash = (hash ^ cols) * HASH_PRIME;
+        hash = (hash ^ rows) * HASH_PRIME;
+
+        //place each cell where it ends up after the rotation and mirror
+        final byte[] result = new byte[codes.length];
+
+        for (int row = 0; row < height; row++)
+        {
+            for (int col = 0; col < width; col++)
+            {
+                result[(getRow(transform, col, row, width, height) * cols) + getCol(transform, col, row, width, height)] = codes[(row * width) + col];
+            }
+        }
+
+        for (int i = 0; i < result.length; i++)
+        {
+            hash = (hash ^ result[i]) * HASH_PRIME;
+        }
+
+        return hash;
+    }
+
+    /**
+     * Get the column after the cell is rotated and mirrored
+     * @param transform The rotation and mirror (0 - 7), 0 - 3 are quarter turns clockwise, 4 - 7 are mirrored first
+     * @param col Column
+     * @param row Row
+     * @param width The number of columns
+     * @param height The number of rows
+     * @return The new column
+     */
+    private static int getCol(final int transform, final int col, final int row, final int width, final int height)
+    {
+        //mirror first
+        final int c = (transform >= 4) ? width - 1 - col : col;
+
+        switch (transform % 4)
+        {
+            case 1:
+                return height - 1 - row;
+
+            case 2:
+                return width - 1 - c;
+
+            case 3:
+                return row;
+
+            default:
+                return c;
+        }
+    }
+
+    /**
+     * Get the row after the cell is rotated and mirrored
+     * @param transform The rotation and mirror (0 - 7), 0 - 3 are quarter turns clockwise, 4 - 7 are mirrored first
+     * @param col Column
+     * @param row Row
+     * @param width The number of columns
+     * @param height The number of rows
+     * @return The new row
+     */
+    private static int getRow(final int transform, final int col, final int row, final int width, final int height)
+    {
+        //mirror first
+        final int c = (transform >= 4) ? width - 1 - col : col;
+
+        switch (transform % 4)
+        {
+            case 1:
+                return c;
+
+            case 2:
+                return height - 1 - row;
+
+            case 3:
+                return width - 1 - c;
+
+            default:
+                return row;
+        }
+    }
+
+    /**
+     * Get the transform that undoes the specified transform
+     * @param transform The rotation and mirror (0 - 7)
+     * @return The inverse transform
+     */
+    public static int getInverse(final int transform)
+    {
+        //only a single quarter turn needs to turn the other way, everything else undoes itself
+        switch (transform)
+        {
+            case 1:
+                return 3;
+
+            case 3:
+                return 1;
+
+            default:
+                return transform;
+        }
+    }
+
+    /**
+     * Rotate and mirror the moves of the ai instructions, any other character is left as it is
+     * @param moves The ai instructions (l, r, u, d), upper case is a push
+     * @param transform The rotation and mirror (0 - 7)
+     * @return The moves for the rotated and mirrored level
+     */
+    public static String transform(final String moves, final int transform)
+    {
+        if (transform == TRANSFORM_NONE)
+            return moves;
+
+        final char[] result = moves.toCharArray();
+
+        for (int i = 0; i < result.length; i++)
+        {
+            final char move = Character.toLowerCase(result[i]);
+            final int col = (move == RIGHT) ? 1 : (move == LEFT) ? -1 : 0;
+            final int row = (move == DOWN) ? 1 : (move == UP) ? -1 : 0;
+
+            //skip anything that isn't a move
+            if (col == 0 && row == 0)
+                continue;
+
+            //rotate the direction in a 3x3 area around the middle
+            final int newCol = getCol(transform, col + 1, row + 1, 3, 3) - 1;
+            final int newRow = getRow(transform, col + 1, row + 1, 3, 3) - 1;
+            final char tmp = (newCol > 0) ? RIGHT : (newCol < 0) ? LEFT : (newRow > 0) ? DOWN : UP;
+
+            result[i] = Character.isUpperCase(result[i]) ? Character.toUpperCase(tmp) : tmp;
+        }
+
+        return new String(result);
+    }
+}
@@ -2,7 +2,6 @@ package com.gamesbykevin.sokoban.level;
 
 import com.gamesbykevin.sokoban.level.tile.*;
 import com.gamesbykevin.sokoban.panel.GamePanel;
-import com.gamesbykevin.sokoban.target.Target;
 
 import java.util.HashMap;
 import java.util.ArrayList;
@@ -206,15 +205,7 @@ public class LevelHelper
      */
     public static final boolean hasCompleted(final Level level)
     {
-        //check all targets
-        for (Target target : level.getCurrent())
-        {
-            //if 1 target is not at the goal, the level is not complete
-            if (!target.hasGoal())
-                return false;
-        }
-        
-        //all targets are at a goal, return true
-        return true;
+        //the level keeps count of the blocks at a goal
+        return level.hasCompleted();
     }
 }
\ No newline at end of file
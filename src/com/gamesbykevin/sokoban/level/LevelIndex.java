@@ -0,0 +1,338 @@
+package com.gamesbykevin.sokoban.level;
+
+import android.app.Activity;
+import android.content.Context;
+
+import com.gamesbykevin.sokoban.assets.Assets;
+import com.gamesbykevin.sokoban.thread.MainThread;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The index of every level in a level pack, saved to the internal storage the first time the pack is opened.<br>
+ * Each level has a fixed size record (line range, columns, blocks, content hash),<br>
+ * so opening the pack again reads the index instead of checking every line of the text.<br>
+ * The index also stores a hash of the text, so it is created again if the text changed (e.g. an update edited a level)
+ * @author GOD
+ */
+public final class LevelIndex
+{
+    /**
+     * The start of the file name in the internal storage, followed by the level pack
+     */
+    private static final String FILE_PREFIX = "Index_";
+
+    /**
+     * The bytes at the start of the file so we know the data is valid, the last byte is the version
+     */
+    private static final int MAGIC = 0x534B4902;
+
+    /**
+     * The offset basis of the content hash (FNV-1a)
+     */
+    private static final int HASH_OFFSET = 0x811C9DC5;
+
+    /**
+     * The prime of the content hash (FNV-1a)
+     */
+    private static final int HASH_PRIME = 0x01000193;
+
+    /**
+     * We won't create an index
+     */
+    private LevelIndex()
+    {
+        //static methods only
+    }
+
+    /**
+     * Get the info of every level in the level pack.<br>
+     * The index is read from the internal storage, if it doesn't exist (or is not valid) it will be created and saved
+     * @param activity Object used to access the internal storage
+     * @param key The level pack
+     * @param lines The lines of the text file containing the levels
+     * @return The info of each level, in order
+     */
+    public static List<LevelInfo> load(final Activity activity, final Assets.TextKey key, final List<String> lines)
+    {
+        //track how long it takes
+        final long time = System.nanoTime();
+
+        //the hash of the text, so we know the saved index is for this text
+        final int textHash = getTextHash(lines);
+
+        //read the saved index
+        List<LevelInfo> trackers = read(activity, key, lines.size(), textHash);
+
+        //if it doesn't exist, check the text and save the index for next time
+        if (trackers == null)
+        {
+            trackers = create(key, lines);
+            write(activity, key, lines.size(), textHash, trackers);
+        }
+
+        //if debugging, print the time to load
+        if (MainThread.DEBUG)
+            System.out.println("Level index " + key + " loaded (ms) " + ((System.nanoTime() - time) / 1000000.0));
+
+        return trackers;
+    }
+
+    /**
+     * Check every line of the text to find where each level is located
+     * @param key The level pack
+     * @param lines The lines of the text file containing the levels
+     * @return The info of each level, in order
+     */
+    public static List<LevelInfo> create(final Assets.TextKey key, final List<String> lines)
+    {
+        final List<LevelInfo> trackers = new ArrayList<LevelInfo>();
+
+        //the number of lines, so we don't have to check each time
+        final int size = lines.size();
+
+        //did we find the first line
+        boolean start = false;
+
+        //start of level
+        int lineStart = 0;
+
+        //longest length (width)
+        int length = 0;
+
+        //check each line in our text file to determine where the levels are
+        for (int i = 0; i < size; i++)
+        {
+            //get the current line
+            final String line = lines.get(i);
+
+            //each line in a level will have a wall somewhere, and make sure not at last line
+            if (line.indexOf(Level.KEY_WALL) >= 0 && i < size - 1)
+            {
+                //store the column width
+                if (line.length() > length)
+                    length = line.length();
+
+                //if we didn't start, this is the first line of the level
+                if (!start)
+                    lineStart = i;
+
+                //flag level start
+                start = true;
+            }
+            else if (start)
+            {
+                //we reached the end of the level, the last line of the text is included
+                final int lineEnd = (i == size - 1) ? i : i - 1;
+
+                //add the info for this level
+                trackers.add(create(getDescription(key, trackers.size()), lines, lineStart, lineEnd, length));
+
+                //flag start false
+                start = false;
+
+                //reset column size as well
+                length = 0;
+            }
+        }
+
+        return trackers;
+    }
+
+    /**
+     * Create the info for a level, counting the blocks and calculating the content hash
+     * @param description The text description of the level
+     * @param lines The lines of the text file containing the levels
+     * @param lineStart The line where the level starts
+     * @param lineEnd The line where the level ends
+     * @param cols The number of columns
+     * @return The info of the level
+     */
+    static LevelInfo create(final String description, final List<String> lines, final int lineStart, final int lineEnd, final int cols)
+    {
+        int blocks = 0;
+        int hash = HASH_OFFSET;
+
+        for (int i = lineStart; i <= lineEnd; i++)
+        {
+            final String line = lines.get(i);
+
+            for (int col = 0; col < line.length(); col++)
+            {
+                final char character = line.charAt(col);
+
+                if (character == Level.KEY_BLOCK || character == Level.KEY_BLOCK_ON_GOAL)
+                    blocks++;
+
+                hash = (hash ^ character) * HASH_PRIME;
+            }
+
+            //separate each row
+            hash = (hash ^ '\n') * HASH_PRIME;
+        }
+
+        return new LevelInfo(lineStart, lineEnd, cols, blocks, hash, description);
+    }
+
+    /**
+     * Get the hash of the text, if any line changes the hash will be different
+     * @param lines The lines of the text file containing the levels
+     * @return The hash of every line in the text
+     */
+    private static int getTextHash(final List<String> lines)
+    {
+        int hash = HASH_OFFSET;
+
+        for (int i = 0; i < lines.size(); i++)
+        {
+            hash = (hash ^ lines.get(i).hashCode()) * HASH_PRIME;
+        }
+
+        return hash;
+    }
+
+    /**
+     * Get the description
+     * @param key The level pack
+     * @param index The index of the level in the pack
+     * @return The text description of the level we display to the user
+     */
+    public static String getDescription(final Assets.TextKey key, final int index)
+    {
+        return getDescription(key.getDesc(), index);
+    }
+
+    /**
+     * Get the description
+     * @param name The name of the level pack
+     * @param index The index of the level in the pack
+     * @return The text description of the level we display to the user
+     */
+    public static String getDescription(final String name, final int index)
+    {
+        return name + " - Level " + (index + 1);
+    }
+
+    /**
+     * Get the file name
+     * @param key The level pack
+     * @return The name of the index file in the internal storage
+     */
+    private static String getFileName(final Assets.TextKey key)
+    {
+        return FILE_PREFIX + key.toString();
+    }
+
+    /**
+     * Read the index from the internal storage
+     * @param activity Object used to access the internal storage
+     * @param key The level pack
+     * @param size The number of lines in the text file, if it doesn't match the index is not valid
+     * @param textHash The hash of the text, if it doesn't match the index is not valid
+     * @return The info of each level, null if the index doesn't exist or is not valid
+     */
+    private static List<LevelInfo> read(final Activity activity, final Assets.TextKey key, final int size, final int textHash)
+    {
+        DataInputStream in = null;
+
+        try
+        {
+            in = new DataInputStream(new BufferedInputStream(activity.openFileInput(getFileName(key))));
+
+            //make sure the index is valid for the text
+            if (in.readInt() != MAGIC || in.readInt() != size || in.readInt() != textHash)
+                return null;
+
+            final int total = in.readInt();
+            final List<LevelInfo> trackers = new ArrayList<LevelInfo>(total);
+
+            for (int index = 0; index < total; index++)
+            {
+                final int lineStart = in.readInt();
+                final int lineEnd = lineStart + in.readShort() - 1;
+                final int cols = in.readShort();
+                final int blocks = in.readShort();
+                final int hash = in.readInt();
+
+                trackers.add(new LevelInfo(lineStart, lineEnd, cols, blocks, hash, getDescription(key, index)));
+            }
+
+            return trackers;
+        }
+        catch (FileNotFoundException e)
+        {
+            //the index has not been created
+            return null;
+        }
+        catch (Exception e)
+        {
+            e.printStackTrace();
+            return null;
+        }
+        finally
+        {
+            try
+            {
+                if (in != null)
+                    in.close();
+            }
+            catch (Exception e)
+            {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Write the index to the internal storage
+     * @param activity Object used to access the internal storage
+     * @param key The level pack
+     * @param size The number of lines in the text file
+     * @param textHash The hash of the text
+     * @param trackers The info of each level
+     */
+    private static void write(final Activity activity, final Assets.TextKey key, final int size, final int textHash, final List<LevelInfo> trackers)
+    {
+        DataOutputStream out = null;
+
+        try
+        {
+            out = new DataOutputStream(new BufferedOutputStream(activity.openFileOutput(getFileName(key), Context.MODE_PRIVATE)));
+            out.writeInt(MAGIC);
+            out.writeInt(size);
+            out.writeInt(textHash);
+            out.writeInt(trackers.size());
+
+            for (LevelInfo tracker : trackers)
+            {
+                out.writeInt(tracker.getLineStart());
+                out.writeShort(tracker.getRows());
+                out.writeShort(tracker.getCols());
+                out.writeShort(tracker.getBlocks());
+                out.writeInt(tracker.getHash());
+            }
+        }
+        catch (Exception e)
+        {
+            e.printStackTrace();
+        }
+        finally
+        {
+            try
+            {
+                if (out != null)
+                    out.close();
+            }
+            catch (Exception e)
+            {
+                e.printStackTrace();
+            }
+        }
+    }
+}
@@ -10,16 +10,42 @@ public class LevelInfo
     //the start and end line of a given level
     private final int start, end, cols, rows;
     
+    //the number of blocks in the level
+    private final int blocks;
+    
+    //the hash of the level text, used to identify the level
+    private final int hash;
+    
+    //the position of the level in the binary level pack, -1 if loaded from text
+    private final int offset;
+    
     //the text description of the level
     private final String levelDescription;
     
-    public LevelInfo(final int start, final int end, final int cols, final String levelDescription)
+    //how hard the level is, null if not measured
+    private final Metrics metrics;
+    
+    public LevelInfo(final int start, final int end, final int cols, final int blocks, final int hash, final String levelDescription)
+    {
+        this(start, end, cols, blocks, hash, -1, levelDescription);
+    }
+    
+    public LevelInfo(final int start, final int end, final int cols, final int blocks, final int hash, final int offset, final String levelDescription)
+    {
+        this(start, end, cols, blocks, hash, offset, levelDescription, null);
+    }
+    
+    public LevelInfo(final int start, final int end, final int cols, final int blocks, final int hash, final int offset, final String levelDescription, final Metrics metrics)
     {
         this.start = start;
         this.end = end;
         this.cols = cols;
         this.rows = end - start + 1;
+        this.blocks = blocks;
+        this.hash = hash;
+        this.offset = offset;
         this.levelDescription = levelDescription;
+        this.metrics = metrics;
     }
     
     /**
@@ -58,6 +84,33 @@ public class LevelInfo
         return this.rows;
     }
     
+    /**
+     * Get the blocks
+     * @return The number of blocks in this level
+     */
+    public int getBlocks()
+    {
+        return this.blocks;
+    }
+    
+    /**
+     * Get the hash
+     * @return The hash of the level text
+     */
+    public int getHash()
+    {
+        return this.hash;
+    }
+    
+    /**
+     * Get the offset
+     * @return The position of the level in the binary level pack, -1 if loaded from text
+     */
+    public int getOffset()
+    {
+        return this.offset;
+    }
+    
     /**
      * Get the level description
      * @return The level description text we want to display to the user
@@ -66,4 +119,13 @@ public class LevelInfo
     {
     	return this.levelDescription;
     }
+    
+    /**
+     * Get the metrics
+     * @return How hard the level is (floor, dead squares, pushes, expanded states), null if not measured
+     */
+    public Metrics getMetrics()
+    {
+        return this.metrics;
+    }
 }
\ No newline at end of file
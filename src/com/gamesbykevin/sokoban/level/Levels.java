@@ -1,18 +1,20 @@
 package com.gamesbykevin.sokoban.level;
 
+import android.app.Activity;
+import android.graphics.Bitmap;
 import android.graphics.Canvas;
 import android.graphics.Paint;
+import android.graphics.Rect;
 
 import com.gamesbykevin.androidframework.awt.Button;
 import com.gamesbykevin.androidframework.level.Select;
-import com.gamesbykevin.androidframework.resources.Files;
 import com.gamesbykevin.androidframework.resources.Images;
 import com.gamesbykevin.sokoban.assets.Assets;
 import com.gamesbykevin.sokoban.level.tile.Tile;
 import com.gamesbykevin.sokoban.level.tile.TileHelper;
 import com.gamesbykevin.sokoban.panel.GamePanel;
+import com.gamesbykevin.sokoban.thread.MainThread;
 
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 
@@ -34,9 +36,34 @@ public final class Levels implements ILevels
     //keep the list where all the levels are located in the text file
     private List<LevelInfo> trackers;
     
+    //the binary level pack, null if the levels are loaded from the text file
+    private Pack pack;
+    
     //our level select object
     private Select levelSelect;
     
+    //the thumbnail of each level in the level select
+    private Thumbnails thumbnails;
+    
+    //the page of the level select we last prefetched thumbnails for
+    private int thumbnailPage = -1;
+    
+    //where each thumbnail is rendered
+    private final Rect thumbnailBounds = new Rect();
+    
+    //the paint used to render the thumbnails, scaled without smoothing so each cell stays sharp
+    private final Paint thumbnailPaint = new Paint();
+    
+    /**
+     * Do we render the thumbnail of each level in the level select
+     */
+    public static final boolean THUMBNAILS = true;
+    
+    /**
+     * The space between the edge of the level select button and the thumbnail
+     */
+    private static final int THUMBNAIL_PADDING = 8;
+    
     //level select information
     private static final int LEVEL_SELECT_COLS = 5;
     private static final int LEVEL_SELECT_ROWS = 7;
@@ -47,10 +74,11 @@ public final class Levels implements ILevels
     
     /**
      * Create levels
+     * @param activity Object used to access the level index in the internal storage
      * @param key The unique key of the desired text file
      * @throws Exception 
      */
-    public Levels(final Assets.TextKey key) throws Exception
+    public Levels(final Activity activity, final Assets.TextKey key) throws Exception
     {
         //store text key
         this.key = key;
@@ -58,19 +86,42 @@ public final class Levels implements ILevels
         //current level is null
         this.level = null;
         
-        //create new list to track where each level is in a given text file
-        this.trackers = new ArrayList<LevelInfo>();
+        //get the binary level pack, it is opened the first time it is needed
+        this.pack = Assets.getPack(key);
         
-        //load the location of all levels in the specified text file
-        loadLevels();
+        //load the location of all levels in the binary level pack, or the text file if it does not exist
+        if (pack != null)
+        {
+        	this.trackers = pack.getTrackers(key);
+        }
+        else
+        {
+        	this.trackers = LevelIndex.load(activity, key, Assets.getText(getKey()));
+        }
         
         //create the level select object
         createLevelSelect();
         
+        //create the thumbnails, they are created in the background when first rendered
+        if (THUMBNAILS)
+        {
+        	this.thumbnails = new Thumbnails(activity, this);
+        	this.thumbnailPaint.setFilterBitmap(false);
+        }
+        
         //create new list of tiles
         this.tiles = new HashMap<Tile.Type, Tile>();
     }
     
+    /**
+     * Are the thumbnails still being created?
+     * @return true if the level select will change once the thumbnails are ready, false otherwise
+     */
+    public boolean isLoading()
+    {
+    	return (thumbnails != null && thumbnails.isLoading());
+    }
+    
     /**
      * Create the level select object
      */
@@ -91,121 +142,6 @@ public final class Levels implements ILevels
         getLevelSelect().setTotal(getLevelTrackers().size());
     }
     
-    /**
-     * Load the line # for each level so we will know how to load a specified level 
-     */
-    private void loadLevels()
-    {
-        //did we find the first line
-        boolean start = false;
-        
-        //start and finish of level
-        int lineStart = 0;
-        
-        //longest length (width)
-        int length = 0;
-        
-        //check each line in our text file to determine where the levels are
-        for (int i = 0; i < Files.getText(getKey()).getLines().size(); i++)
-        {
-            //get the current line
-            String line = Files.getText(getKey()).getLines().get(i);
-            
-            //each line in a level will have a wall somewhere, and make sure not at last line
-            if (line.contains(Level.KEY_WALL) && i < Files.getText(getKey()).getLines().size() - 1)
-            {
-                //store the column width
-                if (line.length() > length)
-                    length = line.length();
-                
-                //if we didn't start, this is the first line of the level
-                if (!start)
-                    lineStart = i;
-                
-                //flag level start
-                start = true;
-            }
-            else
-            {
-                //if we already started, we reached the end of the level
-                if (start)
-                {
-                	//the text description of the level
-                	String levelDescription = "";
-                	
-                	switch (this.key)
-                	{
-	                	case Easy_A:
-	                		levelDescription = "Easy A - Level " + (getLevelTrackers().size() + 1);
-	                		break;
-	                		
-	                	case Easy_B:
-	                		levelDescription = "Easy B - Level " + (getLevelTrackers().size() + 1);
-	                		break;
-	                		
-	                	case Easy_C:
-	                		levelDescription = "Easy C - Level " + (getLevelTrackers().size() + 1);
-	                		break;
-	                		
-	                	case Easy_D:
-	                		levelDescription = "Easy D - Level " + (getLevelTrackers().size() + 1);
-	                		break;
-	                		
-	                	case Medium_A:
-	                		levelDescription = "Medium A - Level " + (getLevelTrackers().size() + 1);
-	                		break;
-	                		
-	                	case Medium_B:
-	                		levelDescription = "Medium B - Level " + (getLevelTrackers().size() + 1);
-	                		break;
-	                		
-	                	case Medium_C:
-	                		levelDescription = "Medium C - Level " + (getLevelTrackers().size() + 1);
-	                		break;
-	                		
-	                	case Medium_D:
-	                		levelDescription = "Medium D - Level " + (getLevelTrackers().size() + 1);
-	                		break;
-	                		
-	                	case Hard_A:
-	                		levelDescription = "Hard A - Level " + (getLevelTrackers().size() + 1);
-	                		break;
-	                		
-	                	case Hard_B:
-	                		levelDescription = "Hard B - Level " + (getLevelTrackers().size() + 1);
-	                		break;
-	                		
-	                	case Hard_C:
-	                		levelDescription = "Hard C - Level " + (getLevelTrackers().size() + 1);
-	                		break;
-	                		
-	                	case Hard_D:
-	                		levelDescription = "Hard D - Level " + (getLevelTrackers().size() + 1);
-	                		break;
-                	}
-                	
-                	
-                    if (i == Files.getText(getKey()).getLines().size() - 1)
-                    {
-                        //add the info for this level
-                    	getLevelTrackers().add(new LevelInfo(lineStart, i, length, levelDescription));
-                    }
-                    else
-                    {
-                        //add the info for this level
-                    	getLevelTrackers().add(new LevelInfo(lineStart, i - 1, length, levelDescription));
-                    }
-                    
-                    //flag start false
-                    start = false;
-                    
-                    //reset column size as well
-                    length = 0;
-                }
-            }
-        }
-    }
-    
     /**
      * Get the level select
      * @return The level select object
@@ -219,7 +155,7 @@ public final class Levels implements ILevels
      * Get the unique text resource key
      * @return The unique key of the text resource used to create the levels 
      */
-    private Assets.TextKey getKey()
+    public Assets.TextKey getKey()
     {
         return this.key;
     }
@@ -258,6 +194,10 @@ public final class Levels implements ILevels
      */
     public void createLevel() throws Exception
     {
+        //the previous level layer is no longer needed
+        if (getLevel() != null)
+        	getLevel().recycleLayer();
+        
         //create new level
         this.level = new Level(getLevelTracker());
         
@@ -265,11 +205,15 @@ public final class Levels implements ILevels
         final int cols = getLevelTracker().getCols();
         final int rows = getLevelTracker().getRows();
         
-        //now load each line into the level
-        for (int i = getLevelTracker().getLineStart(); i <= getLevelTracker().getLineEnd(); i++)
-        {
-        	getLevel().load(Files.getText(getKey()).getLines().get(i));
-        }
+        //track how long it takes to load the level
+        final long time = System.nanoTime();
+        
+        //now load the level in a single pass
+        load(getLevel(), getLevelTracker());
+        
+        //if debugging, print the time to load
+        if (MainThread.DEBUG)
+        	System.out.println("Level loaded (ms) " + ((System.nanoTime() - time) / 1000000.0));
         
         //if the level is small enough, we will display all on screen
         if (getLevel().canFitWindow())
@@ -296,6 +240,9 @@ public final class Levels implements ILevels
                 middleY - (int)(getLevel().getStart().getRow() * TileHelper.DEFAULT_DIMENSION)
             );
         }
+        
+        //render the parts of the level that don't change
+        getLevel().createLayer(tiles);
     }
     
     /**
@@ -304,6 +251,13 @@ public final class Levels implements ILevels
     @Override
     public void dispose()
     {
+        //stop creating thumbnails before the levels they need are removed
+        if (thumbnails != null)
+        {
+        	thumbnails.dispose();
+        	thumbnails = null;
+        }
+        
         if (tiles != null)
         {
             for (Tile tile : tiles.values())
@@ -331,6 +285,8 @@ public final class Levels implements ILevels
             trackers = null;
         }
         
+        pack = null;
+        
         if (levelSelect != null)
         {
         	levelSelect.dispose();
@@ -338,6 +294,24 @@ public final class Levels implements ILevels
         }
     }
     
+    /**
+     * Load the level from the binary level pack, or the text file if the pack does not exist
+     * @param level The level to load, created with the info of the level
+     * @param tracker The info of the level
+     * @throws Exception
+     */
+    protected void load(final Level level, final LevelInfo tracker) throws Exception
+    {
+        if (pack != null)
+        {
+        	pack.load(level, tracker);
+        }
+        else
+        {
+        	level.load(Assets.getText(getKey()), tracker.getLineStart(), tracker.getLineEnd());
+        }
+    }
+    
     /**
      * Get the current level
      * @return Get the current level
@@ -385,6 +359,59 @@ public final class Levels implements ILevels
         {
         	//draw the level select screen
         	getLevelSelect().render(canvas, paint);
+        	
+        	//draw the thumbnails over the level select buttons
+        	if (thumbnails != null)
+        		renderThumbnails(canvas);
         }
     }
+    
+    /**
+     * Render the thumbnail of each level on the current page of the level select.<br>
+     * When the page changes, the thumbnails of the page and the pages next to it are created in the background
+     * @param canvas Object where we write pixel data
+     */
+    private void renderThumbnails(final Canvas canvas)
+    {
+    	final int page = getLevelSelect().getPageIndex();
+    	final int size = LEVEL_SELECT_COLS * LEVEL_SELECT_ROWS;
+    	
+    	//get the thumbnails ready before they are needed
+    	if (page != thumbnailPage)
+    	{
+    		thumbnails.prefetch(page, size);
+    		thumbnailPage = page;
+    	}
+    	
+    	for (int i = 0; i < size; i++)
+    	{
+    		final int index = (page * size) + i;
+    		
+    		if (index >= getLevelTrackers().size())
+    			break;
+    		
+    		final Bitmap bitmap = thumbnails.get(index);
+    		
+    		//the thumbnail is not ready yet
+    		if (bitmap == null)
+    			continue;
+    		
+    		//the area inside the button
+    		final int x = LEVEL_SELECT_START_X + ((i % LEVEL_SELECT_COLS) * (LEVEL_SELECT_DIMENSION + LEVEL_SELECT_PADDING)) + THUMBNAIL_PADDING;
+    		final int y = LEVEL_SELECT_START_Y + ((i / LEVEL_SELECT_COLS) * (LEVEL_SELECT_DIMENSION + LEVEL_SELECT_PADDING)) + THUMBNAIL_PADDING;
+    		final int area = LEVEL_SELECT_DIMENSION - (THUMBNAIL_PADDING * 2);
+    		
+    		//scale each cell the same so the level keeps its shape, a whole number if possible so each cell is the same size
+    		float scale = (float)area / Math.max(bitmap.getWidth(), bitmap.getHeight());
+    		
+    		if (scale >= 1)
+    			scale = (int)scale;
+    		
+    		final int width = (int)(bitmap.getWidth() * scale);
+    		final int height = (int)(bitmap.getHeight() * scale);
+    		
+    		thumbnailBounds.set(x + ((area - width) / 2), y + ((area - height) / 2), x + ((area + width) / 2), y + ((area + height) / 2));
+    		canvas.drawBitmap(bitmap, null, thumbnailBounds, thumbnailPaint);
+    	}
+    }
 }
\ No newline at end of file
@@ -0,0 +1,155 @@
+package com.gamesbykevin.sokoban.level;
+
+import com.gamesbykevin.sokoban.ai.Solver;
+
+/**
+ * The measurements of how hard a level is, calculated when the level packs are built and stored in the level index.<br>
+ * The number of blocks is part of the level info, these are the rest (floor, dead squares, pushes, expanded states)
+ * @author GOD
+ */
+public final class Metrics
+{
+    //the moves the ai instructions are made of, a push is upper case
+    private static final String INSTRUCTIONS = "lurdLURD";
+
+    //the number of cells the player can reach
+    private final int floor;
+
+    //the number of floor cells a block can never be pushed from to a goal
+    private final int dead;
+
+    //the fewest pushes found to solve the level, -1 if not known
+    private final int pushes;
+
+    //are the pushes the fewest possible (found by the solver), or only the pushes of the ai instructions
+    private final boolean optimal;
+
+    //the number of states the solver expanded
+    private final int nodes;
+
+    public Metrics(final int floor, final int dead, final int pushes, final boolean optimal, final int nodes)
+    {
+        this.floor = floor;
+        this.dead = dead;
+        this.pushes = pushes;
+        this.optimal = optimal;
+        this.nodes = nodes;
+    }
+
+    /**
+     * Measure the level
+     * @param level The level in the starting position
+     * @param solution The ai instructions to solve the level, used for the pushes if the solver reaches the node limit, null if there aren't any.<br>
+     * The last piece of data of a level the ai didn't solve is the time e.g. "400sec", then the pushes are not known
+     * @return The metrics of the level
+     */
+    public static Metrics create(final Level level, final String solution)
+    {
+        final Solver solver = new Solver();
+
+        final boolean optimal = solver.solve(level);
+
+        int pushes = (optimal) ? solver.getPushes() : -1;
+
+        //the solver gave up, count the pushes (upper case) of the ai instructions instead (only if the level can be played)
+        if (!optimal && isInstructions(solution) && level.getStart() != null && !level.getBlocks().isEmpty())
+        {
+            pushes = 0;
+
+            for (int i = 0; i < solution.length(); i++)
+            {
+                if (Character.isUpperCase(solution.charAt(i)))
+                    pushes++;
+            }
+        }
+
+        //count the floor and dead squares
+        int floor = 0, dead = 0;
+
+        for (int row = 0; row < level.getRows(); row++)
+        {
+            for (int col = 0; col < level.getCols(); col++)
+            {
+                if (solver.isFloor(col, row))
+                    floor++;
+                if (solver.isDead(col, row))
+                    dead++;
+            }
+        }
+
+        return new Metrics(floor, dead, pushes, optimal, solver.getExpanded());
+    }
+
+    /**
+     * Are these ai instructions?
+     * @param solution The last piece of data of the solution line
+     * @return true if there is at least 1 move and every character is a move (lurdLURD), false otherwise
+     */
+    private static boolean isInstructions(final String solution)
+    {
+        if (solution == null || solution.length() == 0)
+            return false;
+
+        for (int i = 0; i < solution.length(); i++)
+        {
+            if (INSTRUCTIONS.indexOf(solution.charAt(i)) < 0)
+                return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Get the floor
+     * @return The number of cells the player can reach
+     */
+    public int getFloor()
+    {
+        return this.floor;
+    }
+
+    /**
+     * Get the dead squares
+     * @return The number of floor cells a block can never be pushed from to a goal
+     */
+    public int getDead()
+    {
+        return this.dead;
+    }
+
+    /**
+     * Get the dead square ratio
+     * @return The part of the floor that are dead squares (0 - 1)
+     */
+    public float getDeadRatio()
+    {
+        return (getFloor() > 0) ? (float)getDead() / getFloor() : 0;
+    }
+
+    /**
+     * Get the pushes
+     * @return The fewest pushes found to solve the level, -1 if not known
+     */
+    public int getPushes()
+    {
+        return this.pushes;
+    }
+
+    /**
+     * Are the pushes optimal?
+     * @return true if the solver found the fewest pushes, false if the pushes are from the ai instructions (or not known)
+     */
+    public boolean isOptimal()
+    {
+        return this.optimal;
+    }
+
+    /**
+     * Get the nodes
+     * @return The number of states the solver expanded, Solver.NODE_LIMIT if the solver gave up
+     */
+    public int getNodes()
+    {
+        return this.nodes;
+    }
+}
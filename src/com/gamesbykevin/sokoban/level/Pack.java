@@ -0,0 +1,422 @@
+package com.gamesbykevin.sokoban.level;
+
+import android.content.res.AssetFileDescriptor;
+import android.content.res.AssetManager;
+
+import com.gamesbykevin.sokoban.assets.Assets;
+import com.gamesbykevin.sokoban.thread.MainThread;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A level pack stored in a compact binary format, created from the text files by PackBuilder.<br>
+ * The header has the number of levels followed by a fixed size record for each level (offset, columns, rows, blocks, hash, metrics).<br>
+ * Each row of a level is a list of runs, every run is a single byte with the character (3 bits) and the length (5 bits).<br>
+ * Imported collections also have the metadata of each level (title, author, comment) after the levels.<br>
+ * The file is memory mapped when possible, so a level is read directly from the file with a single seek.
+ * @author GOD
+ */
+public final class Pack
+{
+    /**
+     * The bytes at the start of the file so we know the data is valid, the last byte is the version
+     */
+    public static final int MAGIC = 0x534B4204;
+
+    /**
+     * The size of the header before the level records (magic, total, metadata offset)
+     */
+    public static final int HEADER_SIZE = 12;
+
+    /**
+     * The number of text values stored for each level in the metadata (title, author, comment)
+     */
+    public static final int METADATA_VALUES = 3;
+
+    /**
+     * The size of each level record (offset, cols, rows, blocks, hash, floor, dead, pushes, nodes, optimal)
+     */
+    public static final int RECORD_SIZE = 25;
+
+    /**
+     * The characters stored in each run, the position is the 3 bit code.<br>
+     * Any character not in the list is not part of the level and is stored as the first code
+     */
+    private static final char[] CHARACTERS = new char[]{
+        0,
+        Level.KEY_FLOOR,
+        Level.KEY_WALL,
+        Level.KEY_PLAYER,
+        Level.KEY_PLAYER_ON_GOAL,
+        Level.KEY_BLOCK,
+        Level.KEY_BLOCK_ON_GOAL,
+        Level.KEY_GOAL
+    };
+
+    /**
+     * The number of bits used to store the length of each run
+     */
+    private static final int LENGTH_BITS = 5;
+
+    /**
+     * The longest run that can be stored in a single byte
+     */
+    public static final int LENGTH_MAX = (1 << LENGTH_BITS);
+
+    //the binary data of the pack
+    private final ByteBuffer buffer;
+
+    //the position of the metadata of each level, created when first needed
+    private int[] metadata;
+
+    /**
+     * Create the pack from the binary data
+     * @param buffer The binary data of the pack
+     * @throws Exception If the data is not valid
+     */
+    private Pack(final ByteBuffer buffer) throws Exception
+    {
+        this.buffer = buffer;
+
+        if (buffer.getInt(0) != MAGIC)
+            throw new Exception("Level pack data is not valid");
+    }
+
+    /**
+     * Open the binary level pack from the assets.<br>
+     * The packs use an extension aapt stores uncompressed, so the file is memory mapped.<br>
+     * If the file was compressed anyway (e.g. a different build) it is read once to a direct buffer
+     * @param manager Object needed to open the file
+     * @param key The level pack
+     * @return The level pack, null if the binary file does not exist
+     */
+    public static Pack open(final AssetManager manager, final Assets.TextKey key)
+    {
+        try
+        {
+            //the name of the file in the assets
+            final String name = Assets.getBinaryFile(key);
+
+            try
+            {
+                //map the file directly, this only works if the asset is not compressed
+                final AssetFileDescriptor descriptor = manager.openFd(name);
+                final FileInputStream input = descriptor.createInputStream();
+
+                try
+                {
+                    final FileChannel channel = input.getChannel();
+                    return new Pack(channel.map(FileChannel.MapMode.READ_ONLY, descriptor.getStartOffset(), descriptor.getLength()));
+                }
+                finally
+                {
+                    //the mapping is still valid once the file is closed
+                    input.close();
+                    descriptor.close();
+                }
+            }
+            catch (IOException e)
+            {
+                //the asset is compressed, so read it instead
+                if (MainThread.DEBUG)
+                    System.out.println("Pack " + name + " is compressed, reading to a buffer");
+
+                return new Pack(read(manager.open(name)));
+            }
+        }
+        catch (Exception e)
+        {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Open a binary level pack from a file, used by the tools when building.<br>
+     * The file is memory mapped, so the levels are not kept in the heap
+     * @param file The binary level pack
+     * @return The level pack, null if the file does not exist or is not valid
+     */
+    public static Pack open(final File file)
+    {
+        try
+        {
+            final RandomAccessFile input = new RandomAccessFile(file, "r");
+
+            try
+            {
+                return new Pack(input.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, input.length()));
+            }
+            finally
+            {
+                //the mapping is still valid once the file is closed
+                input.close();
+            }
+        }
+        catch (Exception e)
+        {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Read all of the data to a direct buffer, so it is kept outside of the heap
+     * @param input The data to read
+     * @return The buffer containing the data
+     * @throws IOException
+     */
+    private static ByteBuffer read(final InputStream input) throws IOException
+    {
+        try
+        {
+            byte[] data = new byte[input.available() > 0 ? input.available() : 1024];
+            int size = 0;
+
+            for (int length = input.read(data, size, data.length - size); length > 0; length = input.read(data, size, data.length - size))
+            {
+                size += length;
+
+                //if we ran out of room, increase the size by half
+                if (size == data.length)
+                {
+                    final byte[] tmp = new byte[data.length + (data.length / 2)];
+                    System.arraycopy(data, 0, tmp, 0, size);
+                    data = tmp;
+                }
+            }
+
+            final ByteBuffer buffer = ByteBuffer.allocateDirect(size);
+            buffer.put(data, 0, size);
+            buffer.rewind();
+            return buffer;
+        }
+        finally
+        {
+            input.close();
+        }
+    }
+
+    /**
+     * Get the total
+     * @return The number of levels in the pack
+     */
+    public int getTotal()
+    {
+        return buffer.getInt(4);
+    }
+
+    /**
+     * Get the info of every level in the pack
+     * @param key The level pack
+     * @return The info of each level, in order
+     */
+    public List<LevelInfo> getTrackers(final Assets.TextKey key)
+    {
+        return getTrackers(key.getDesc());
+    }
+
+    /**
+     * Get the info of every level in the pack.<br>
+     * The description is the title of the level, if the level doesn't have one the name of the pack is used
+     * @param name The name of the level pack
+     * @return The info of each level, in order
+     */
+    public List<LevelInfo> getTrackers(final String name)
+    {
+        final List<LevelInfo> trackers = new ArrayList<LevelInfo>(getTotal());
+
+        for (int index = 0; index < getTotal(); index++)
+        {
+            //the position of the record for this level
+            final int record = HEADER_SIZE + (index * RECORD_SIZE);
+
+            //use the title if there is one
+            final String title = getTitle(index);
+
+            //the metrics are not known if the floor is negative
+            final Metrics metrics = (buffer.getShort(record + 14) < 0) ? null : new Metrics(
+                buffer.getShort(record + 14),
+                buffer.getShort(record + 16),
+                buffer.getShort(record + 18),
+                buffer.get(record + 24) != 0,
+                buffer.getInt(record + 20)
+            );
+
+            //the lines are relative to the start of the level
+            trackers.add(new LevelInfo(
+                0,
+                buffer.getShort(record + 6) - 1,
+                buffer.getShort(record + 4),
+                buffer.getShort(record + 8),
+                buffer.getInt(record + 10),
+                buffer.getInt(record),
+                (title.length() > 0) ? title : LevelIndex.getDescription(name, index),
+                metrics
+            ));
+        }
+
+        return trackers;
+    }
+
+    /**
+     * Does the pack have metadata?
+     * @return true if the title, author and comment of each level are stored, false otherwise
+     */
+    public boolean hasMetadata()
+    {
+        return (buffer.getInt(8) > 0);
+    }
+
+    /**
+     * Get the title
+     * @param index The index of the level in the pack
+     * @return The title of the level, empty if there isn't one
+     */
+    public String getTitle(final int index)
+    {
+        return getMetadata(index, 0);
+    }
+
+    /**
+     * Get the author
+     * @param index The index of the level in the pack
+     * @return The author of the level, empty if there isn't one
+     */
+    public String getAuthor(final int index)
+    {
+        return getMetadata(index, 1);
+    }
+
+    /**
+     * Get the comment
+     * @param index The index of the level in the pack
+     * @return The comment of the level, empty if there isn't one
+     */
+    public String getComment(final int index)
+    {
+        return getMetadata(index, 2);
+    }
+
+    /**
+     * Get a text value from the metadata.<br>
+     * Each value is stored as the length (2 bytes) followed by the UTF-8 bytes
+     * @param index The index of the level in the pack
+     * @param value Which value we want (0 = title, 1 = author, 2 = comment)
+     * @return The text value, empty if the pack doesn't have metadata
+     */
+    private synchronized String getMetadata(final int index, final int value)
+    {
+        if (!hasMetadata())
+            return "";
+
+        //find where the metadata of each level starts the first time it is needed
+        if (metadata == null)
+        {
+            this.metadata = new int[getTotal()];
+
+            int position = buffer.getInt(8);
+
+            for (int i = 0; i < metadata.length; i++)
+            {
+                metadata[i] = position;
+
+                for (int j = 0; j < METADATA_VALUES; j++)
+                {
+                    position += 2 + (buffer.getShort(position) & 0xFFFF);
+                }
+            }
+        }
+
+        //skip the values before the one we want
+        int position = metadata[index];
+
+        for (int j = 0; j < value; j++)
+        {
+            position += 2 + (buffer.getShort(position) & 0xFFFF);
+        }
+
+        final byte[] data = new byte[buffer.getShort(position) & 0xFFFF];
+
+        for (int i = 0; i < data.length; i++)
+        {
+            data[i] = buffer.get(position + 2 + i);
+        }
+
+        try
+        {
+            return new String(data, "UTF-8");
+        }
+        catch (IOException e)
+        {
+            e.printStackTrace();
+            return "";
+        }
+    }
+
+    /**
+     * Load the level from the pack
+     * @param level The level to load, created with the info of the level
+     * @param tracker The info of the level, containing where it is located in the pack
+     */
+    public void load(final Level level, final LevelInfo tracker)
+    {
+        level.load(buffer, tracker.getOffset());
+    }
+
+    /**
+     * Get the code of the character
+     * @param character The character in the level text
+     * @return The 3 bit code
+     */
+    public static int getCode(final char character)
+    {
+        for (int code = 1; code < CHARACTERS.length; code++)
+        {
+            if (CHARACTERS[code] == character)
+                return code;
+        }
+
+        //the character is not part of the level
+        return 0;
+    }
+
+    /**
+     * Create a run
+     * @param character The character repeated
+     * @param length The number of times the character is repeated (1 - LENGTH_MAX)
+     * @return The run stored as a single byte
+     */
+    public static byte getRun(final char character, final int length)
+    {
+        return (byte)((getCode(character) << LENGTH_BITS) | (length - 1));
+    }
+
+    /**
+     * Get the character of the run
+     * @param run The run stored as a single byte
+     * @return The character repeated
+     */
+    public static char getCharacter(final byte run)
+    {
+        return CHARACTERS[(run & 0xFF) >> LENGTH_BITS];
+    }
+
+    /**
+     * Get the length of the run
+     * @param run The run stored as a single byte
+     * @return The number of times the character is repeated
+     */
+    public static int getLength(final byte run)
+    {
+        return (run & (LENGTH_MAX - 1)) + 1;
+    }
+}
@@ -0,0 +1,322 @@
+package com.gamesbykevin.sokoban.level;
+
+import android.app.Activity;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Color;
+import android.os.Handler;
+import android.os.HandlerThread;
+
+import com.gamesbykevin.androidframework.base.Cell;
+import com.gamesbykevin.androidframework.resources.Disposable;
+import com.gamesbykevin.sokoban.assets.Cache;
+import com.gamesbykevin.sokoban.level.tile.Tile;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.HashSet;
+
+/**
+ * The thumbnail of each level displayed in the level select.<br>
+ * Each thumbnail is a tiny bitmap with a single pixel for each cell, scaled up when it is rendered.<br>
+ * The thumbnails are created on a background thread, kept in a memory cache and saved to the internal storage,<br>
+ * so a level is only drawn once even after the game is closed.
+ * @author GOD
+ */
+public final class Thumbnails implements Disposable
+{
+    /**
+     * The most memory used by the thumbnails kept in memory (bytes), more than enough for the current, next and previous pages
+     */
+    private static final int CACHE_BYTES = 512 * 1024;
+
+    /**
+     * The directory in the internal storage where the thumbnails are saved
+     */
+    private static final String DIRECTORY = "thumbnails";
+
+    /**
+     * The file extension of a saved thumbnail
+     */
+    private static final String EXTENSION = ".png";
+
+    /**
+     * The color of each part of the level
+     */
+    private static final int COLOR_WALL = Color.rgb(96, 96, 96);
+    private static final int COLOR_FLOOR = Color.rgb(200, 180, 140);
+    private static final int COLOR_GOAL = Color.rgb(80, 200, 80);
+    private static final int COLOR_BLOCK = Color.rgb(160, 100, 40);
+    private static final int COLOR_BLOCK_ON_GOAL = Color.rgb(220, 180, 40);
+    private static final int COLOR_PLAYER = Color.rgb(40, 100, 220);
+
+    //the levels we create thumbnails for
+    private final Levels levels;
+
+    //where the thumbnails are saved
+    private final File directory;
+
+    //the thumbnails recently used
+    private final Cache<Integer, Bitmap> cache;
+
+    //the thumbnails waiting to be created
+    private final HashSet<Integer> requested;
+
+    //the thread creating the thumbnails
+    private HandlerThread thread;
+    private Handler handler;
+
+    /**
+     * Create the thumbnails and start the background thread
+     * @param activity Object used to access the internal storage
+     * @param levels The levels we create thumbnails for
+     */
+    public Thumbnails(final Activity activity, final Levels levels)
+    {
+        this.levels = levels;
+        this.directory = new File(activity.getCacheDir(), DIRECTORY);
+        this.directory.mkdirs();
+        this.cache = new Cache<Integer, Bitmap>(CACHE_BYTES)
+        {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected int getSize(final Bitmap bitmap)
+            {
+                return bitmap.getByteCount();
+            }
+        };
+        this.requested = new HashSet<Integer>();
+
+        //create the thread with a looper
+        this.thread = new HandlerThread("Thumbnails");
+        this.thread.start();
+        this.handler = new Handler(thread.getLooper());
+    }
+
+    /**
+     * Get the thumbnail, if it doesn't exist it will be created in the background
+     * @param index The index of the level
+     * @return The thumbnail, null if it is not ready yet
+     */
+    public Bitmap get(final int index)
+    {
+        final Bitmap bitmap;
+
+        synchronized (cache)
+        {
+            bitmap = cache.get(index);
+        }
+
+        if (bitmap == null)
+            request(index);
+
+        return bitmap;
+    }
+
+    /**
+     * Create the thumbnails of the page, followed by the next and previous pages
+     * @param page The page displayed
+     * @param size The number of levels on each page
+     */
+    public void prefetch(final int page, final int size)
+    {
+        for (int offset : new int[]{0, 1, -1})
+        {
+            for (int index = (page + offset) * size; index >= 0 && index < (page + offset + 1) * size; index++)
+            {
+                if (index >= levels.getLevelTrackers().size())
+                    break;
+
+                synchronized (cache)
+                {
+                    if (cache.containsKey(index))
+                        continue;
+                }
+
+                request(index);
+            }
+        }
+    }
+
+    /**
+     * Are there thumbnails waiting to be created?
+     * @return true if the background thread is still working, false otherwise
+     */
+    public boolean isLoading()
+    {
+        synchronized (requested)
+        {
+            return !requested.isEmpty();
+        }
+    }
+
+    /**
+     * Create the thumbnail on the background thread, if it wasn't already requested
+     * @param index The index of the level
+     */
+    private void request(final int index)
+    {
+        synchronized (requested)
+        {
+            if (handler == null || !requested.add(index))
+                return;
+        }
+
+        handler.post(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                try
+                {
+                    //if disposed, the levels may already be gone
+                    synchronized (requested)
+                    {
+                        if (handler == null)
+                            return;
+                    }
+
+                    final Bitmap bitmap = load(levels.getLevelTracker(index));
+
+                    synchronized (cache)
+                    {
+                        cache.put(index, bitmap);
+                    }
+                }
+                catch (Exception e)
+                {
+                    e.printStackTrace();
+                }
+                finally
+                {
+                    synchronized (requested)
+                    {
+                        requested.remove(index);
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Load the saved thumbnail, or create and save it if it doesn't exist
+     * @param tracker The info of the level
+     * @return The thumbnail
+     * @throws Exception
+     */
+    private Bitmap load(final LevelInfo tracker) throws Exception
+    {
+        //the level hash is part of the name, so a level that changes gets a new thumbnail
+        final File file = new File(directory, levels.getKey().toString() + "_" + Integer.toHexString(tracker.getHash()) + EXTENSION);
+
+        if (file.exists())
+        {
+            final Bitmap bitmap = BitmapFactory.decodeFile(file.getAbsolutePath());
+
+            if (bitmap != null)
+                return bitmap;
+        }
+
+        final Level level = new Level(tracker);
+        levels.load(level, tracker);
+
+        final Bitmap bitmap = create(level);
+        final FileOutputStream output = new FileOutputStream(file);
+
+        try
+        {
+            bitmap.compress(Bitmap.CompressFormat.PNG, 100, output);
+        }
+        finally
+        {
+            output.close();
+        }
+
+        return bitmap;
+    }
+
+    /**
+     * Create the thumbnail, a single pixel for each cell in the level
+     * @param level The level in the starting position
+     * @return The thumbnail
+     */
+    public static Bitmap create(final Level level)
+    {
+        final int cols = level.getCols();
+        final int rows = level.getRows();
+        final int[] pixels = new int[cols * rows];
+
+        for (int row = 0; row < rows; row++)
+        {
+            for (int col = 0; col < cols; col++)
+            {
+                final Tile.Type type = level.getType(col, row);
+
+                //anything outside of the level is transparent
+                if (type == null)
+                    continue;
+
+                switch (type)
+                {
+                    case Wall:
+                        pixels[(row * cols) + col] = COLOR_WALL;
+                        break;
+
+                    case Goal:
+                        pixels[(row * cols) + col] = COLOR_GOAL;
+                        break;
+
+                    default:
+                        pixels[(row * cols) + col] = COLOR_FLOOR;
+                        break;
+                }
+            }
+        }
+
+        for (Cell block : level.getBlocks())
+        {
+            final int index = ((int)block.getRow() * cols) + (int)block.getCol();
+            pixels[index] = (level.getType((int)block.getCol(), (int)block.getRow()) == Tile.Type.Goal) ? COLOR_BLOCK_ON_GOAL : COLOR_BLOCK;
+        }
+
+        if (level.getStart() != null)
+            pixels[((int)level.getStart().getRow() * cols) + (int)level.getStart().getCol()] = COLOR_PLAYER;
+
+        final Bitmap bitmap = Bitmap.createBitmap(cols, rows, Bitmap.Config.ARGB_8888);
+        bitmap.setPixels(pixels, 0, cols, 0, 0, cols, rows);
+        return bitmap;
+    }
+
+    @Override
+    public void dispose()
+    {
+        synchronized (requested)
+        {
+            handler = null;
+            requested.clear();
+        }
+
+        //any thumbnails waiting are discarded, and we wait for the thumbnail being created (if any) to finish
+        if (thread != null)
+        {
+            thread.quit();
+
+            try
+            {
+                thread.join();
+            }
+            catch (InterruptedException e)
+            {
+                e.printStackTrace();
+            }
+
+            thread = null;
+        }
+
+        synchronized (cache)
+        {
+            cache.clear();
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.gamesbykevin.sokoban.panel;
 
 import android.graphics.Canvas;
+import android.graphics.Rect;
 import android.view.MotionEvent;
 import android.view.SurfaceHolder;
 import android.view.SurfaceView;
@@ -47,6 +48,15 @@ public class GamePanel extends SurfaceView implements SurfaceHolder.Callback, Di
     //get the ratio of the users screen compared to the default dimensions for the render
     private float scaleRenderX, scaleRenderY;
     
+    //how far we are between the previous update and the next (0 - 1)
+    private float interpolation = 0;
+    
+    //the area of the surface that needs to be rendered again
+    private final Rect dirty = new Rect();
+    
+    //do we need to render everything the next frame
+    private volatile boolean redraw = true;
+    
     /**
      * Create a new game panel
      * @param activity Our main activity reference
@@ -142,6 +152,20 @@ public class GamePanel extends SurfaceView implements SurfaceHolder.Callback, Di
         return this.activity;
     }
     
+    /**
+     * Save the progress of the level in play (if any).<br>
+     * The game thread is held while saving so the level does not change while it is written
+     */
+    public void save()
+    {
+        //make sure no other threads are accessing the holder
+        synchronized (getHolder())
+        {
+            if (getScreen() != null && getScreen().getScreenGame() != null)
+                getScreen().getScreenGame().save();
+        }
+    }
+    
     @Override
     public boolean performClick() 
     {
@@ -186,7 +210,16 @@ public class GamePanel extends SurfaceView implements SurfaceHolder.Callback, Di
                 }
                 
                 //update the screen/game etc.. with the specified motion events
-                return getScreen().update(event.getActionMasked(), x, y);
+                final boolean result = getScreen().update(event.getActionMasked(), x, y);
+                
+                //the buttons etc... may have changed, so render everything
+                this.redraw = true;
+                
+                //wake the thread (if resting) so the change is rendered right away
+                if (getThread() != null)
+                	getThread().wake();
+                
+                return result;
             }
         }
         catch (Exception e)
@@ -228,6 +261,9 @@ public class GamePanel extends SurfaceView implements SurfaceHolder.Callback, Di
             //flag the thread as not paused
             getThread().setPause(false);
             
+            //the surface is new, so render everything
+            this.redraw = true;
+            
             //store the ratio for the motion event
             this.scaleMotionX = (float)GamePanel.WIDTH / getWidth();
             this.scaleMotionY = (float)GamePanel.HEIGHT / getHeight();
@@ -333,6 +369,63 @@ public class GamePanel extends SurfaceView implements SurfaceHolder.Callback, Di
     	return this.scaleRenderY;
     }
     
+    /**
+     * Get the area of the surface that changed since the previous frame
+     * @return The area that needs to be rendered again, null if everything needs to be rendered
+     */
+    public Rect getDirty()
+    {
+        if (getScreen() == null)
+            return null;
+        
+        //the screen always tracks the area, even if everything is rendered
+        final boolean partial = getScreen().getDirty(dirty);
+        
+        //check if everything needs to be rendered
+        if (!partial || redraw)
+        {
+            this.redraw = false;
+            return null;
+        }
+        
+        //scale to the surface, with an extra pixel for rounding
+        dirty.set(
+            (int)Math.floor(dirty.left * getScaleRenderX()) - 1, 
+            (int)Math.floor(dirty.top * getScaleRenderY()) - 1, 
+            (int)Math.ceil(dirty.right * getScaleRenderX()) + 1, 
+            (int)Math.ceil(dirty.bottom * getScaleRenderY()) + 1
+        );
+        
+        return dirty;
+    }
+    
+    /**
+     * Is the game panel idle?
+     * @return true if nothing will change until the user interacts, false otherwise
+     */
+    public boolean isIdle()
+    {
+        return (getScreen() != null && getScreen().isIdle());
+    }
+    
+    /**
+     * Assign the interpolation
+     * @param interpolation How far we are between the previous update and the next (0 - 1)
+     */
+    public void setInterpolation(final float interpolation)
+    {
+        this.interpolation = interpolation;
+    }
+    
+    /**
+     * Get the interpolation
+     * @return How far we are between the previous update and the next (0 - 1)
+     */
+    public float getInterpolation()
+    {
+        return this.interpolation;
+    }
+    
     @Override
     public void onDraw(Canvas canvas)
     {
@@ -0,0 +1,249 @@
+package com.gamesbykevin.sokoban.player;
+
+/**
+ * The journal will keep a record of every move the player has made in the level.<br>
+ * Each move is stored as a single byte containing the direction and if a block was pushed,<br>
+ * so we are able to undo/redo as many moves as we want
+ * @author GOD
+ */
+public final class Journal
+{
+    /**
+     * The player moved east
+     */
+    public static final byte DIRECTION_EAST = 0;
+
+    /**
+     * The player moved west
+     */
+    public static final byte DIRECTION_WEST = 1;
+
+    /**
+     * The player moved north
+     */
+    public static final byte DIRECTION_NORTH = 2;
+
+    /**
+     * The player moved south
+     */
+    public static final byte DIRECTION_SOUTH = 3;
+
+    /**
+     * The bits used to store the direction
+     */
+    private static final byte MASK_DIRECTION = 0x03;
+
+    /**
+     * The bit flagged when the player pushed a block
+     */
+    private static final byte FLAG_PUSH = 0x04;
+
+    /**
+     * The number of moves we have room for when the journal is created
+     */
+    private static final int DEFAULT_CAPACITY = 256;
+
+    //the recorded moves
+    private byte[] moves;
+
+    //the number of moves currently applied to the level
+    private int index = 0;
+
+    //the number of moves recorded, anything past the index can be redone
+    private int total = 0;
+
+    /**
+     * Create a new empty journal
+     */
+    public Journal()
+    {
+        this.moves = new byte[DEFAULT_CAPACITY];
+    }
+
+    /**
+     * Remove all recorded moves
+     */
+    public void reset()
+    {
+        this.index = 0;
+        this.total = 0;
+    }
+
+    /**
+     * Record a new move.<br>
+     * Any moves that could have been redone will be discarded
+     * @param direction The direction the player moved
+     * @param push Did the player push a block
+     */
+    public void record(final byte direction, final boolean push)
+    {
+        //if we ran out of room, increase the size by half
+        if (index >= moves.length)
+        {
+            final byte[] tmp = new byte[moves.length + (moves.length / 2)];
+            System.arraycopy(moves, 0, tmp, 0, moves.length);
+            this.moves = tmp;
+        }
+
+        //store the move
+        moves[index] = getMove(direction, push);
+
+        //move to the next position, nothing can be redone now
+        index++;
+        total = index;
+    }
+
+    /**
+     * Is there a move to undo?
+     * @return true = yes, false = no
+     */
+    public boolean canUndo()
+    {
+        return (index > 0);
+    }
+
+    /**
+     * Is there a move to redo?
+     * @return true = yes, false = no
+     */
+    public boolean canRedo()
+    {
+        return (index < total);
+    }
+
+    /**
+     * Step back one move
+     * @return The move that was undone
+     */
+    public byte undo()
+    {
+        index--;
+        return moves[index];
+    }
+
+    /**
+     * Step forward one move
+     * @return The move that was redone
+     */
+    public byte redo()
+    {
+        index++;
+        return moves[index - 1];
+    }
+
+    /**
+     * Get the size
+     * @return The number of moves currently applied to the level
+     */
+    public int getSize()
+    {
+        return this.index;
+    }
+    
+    /**
+     * Get the total
+     * @return The number of moves recorded, including the moves that can be redone
+     */
+    public int getTotal()
+    {
+        return this.total;
+    }
+    
+    /**
+     * Get the recorded move
+     * @param index The position of the move, less than getTotal()
+     * @return The recorded move
+     */
+    public byte getMove(final int index)
+    {
+        return this.moves[index];
+    }
+    
+    /**
+     * Restore previously recorded moves, replacing the existing moves
+     * @param moves The recorded moves
+     * @param total The number of moves recorded
+     * @param index The number of moves applied to the level
+     */
+    public void restore(final byte[] moves, final int total, final int index)
+    {
+        //make sure there is room
+        if (total > this.moves.length)
+            this.moves = new byte[total + (total / 2)];
+        
+        System.arraycopy(moves, 0, this.moves, 0, total);
+        this.total = total;
+        this.index = index;
+    }
+
+    /**
+     * Get the move
+     * @param direction The direction the player moved
+     * @param push Did the player push a block
+     * @return The move as it is recorded
+     */
+    public static byte getMove(final byte direction, final boolean push)
+    {
+        return (byte)(push ? (direction | FLAG_PUSH) : direction);
+    }
+    
+    /**
+     * Get the direction of the specified move
+     * @param move The recorded move
+     * @return The direction e.g. DIRECTION_EAST, DIRECTION_WEST, etc...
+     */
+    public static byte getDirection(final byte move)
+    {
+        return (byte)(move & MASK_DIRECTION);
+    }
+
+    /**
+     * Did the specified move push a block?
+     * @param move The recorded move
+     * @return true = yes, false = no
+     */
+    public static boolean hasPush(final byte move)
+    {
+        return ((move & FLAG_PUSH) == FLAG_PUSH);
+    }
+
+    /**
+     * Get the column offset
+     * @param direction The direction e.g. DIRECTION_EAST, DIRECTION_WEST, etc...
+     * @return The change in column when moving in the specified direction
+     */
+    public static int getCol(final byte direction)
+    {
+        switch (direction)
+        {
+            case DIRECTION_EAST:
+                return 1;
+
+            case DIRECTION_WEST:
+                return -1;
+
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * Get the row offset
+     * @param direction The direction e.g. DIRECTION_EAST, DIRECTION_WEST, etc...
+     * @return The change in row when moving in the specified direction
+     */
+    public static int getRow(final byte direction)
+    {
+        switch (direction)
+        {
+            case DIRECTION_SOUTH:
+                return 1;
+
+            case DIRECTION_NORTH:
+                return -1;
+
+            default:
+                return 0;
+        }
+    }
+}
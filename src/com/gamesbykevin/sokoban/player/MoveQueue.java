@@ -0,0 +1,104 @@
+package com.gamesbykevin.sokoban.player;
+
+/**
+ * A queue of moves waiting to be applied to the player.<br>
+ * The moves are stored as directions in a circular buffer so nothing is created while playing.
+ * @author GOD
+ */
+public final class MoveQueue
+{
+    /**
+     * The number of moves we have room for when the queue is created
+     */
+    private static final int DEFAULT_CAPACITY = 256;
+
+    //the directions waiting to be applied
+    private byte[] moves;
+
+    //the position of the next move and the number of moves waiting
+    private int head = 0, size = 0;
+
+    /**
+     * Create a new empty queue
+     */
+    public MoveQueue()
+    {
+        this.moves = new byte[DEFAULT_CAPACITY];
+    }
+
+    /**
+     * Make sure the queue has room for the specified number of moves.<br>
+     * Any moves waiting will be removed.
+     * @param capacity The number of moves we need room for
+     */
+    public void ensureCapacity(final int capacity)
+    {
+        //remove existing moves
+        clear();
+
+        //create a larger buffer only if needed
+        if (capacity > moves.length)
+            this.moves = new byte[capacity];
+    }
+
+    /**
+     * Remove all moves waiting
+     */
+    public void clear()
+    {
+        this.head = 0;
+        this.size = 0;
+    }
+
+    /**
+     * Add a move to the end of the queue
+     * @param direction The direction to move e.g. Journal.DIRECTION_EAST, Journal.DIRECTION_WEST, etc...
+     * @return true if the move was added, false if there was no room
+     */
+    public boolean add(final byte direction)
+    {
+        //if there is no more room we can't add
+        if (size >= moves.length)
+            return false;
+
+        //place the move after the last one
+        moves[(head + size) % moves.length] = direction;
+        size++;
+
+        //move was added
+        return true;
+    }
+
+    /**
+     * Remove the move at the front of the queue
+     * @return The direction of the next move
+     */
+    public byte poll()
+    {
+        final byte direction = moves[head];
+
+        //the next move is now at the front
+        head = (head + 1) % moves.length;
+        size--;
+
+        return direction;
+    }
+
+    /**
+     * Are there any moves waiting?
+     * @return true if there are no moves waiting, false otherwise
+     */
+    public boolean isEmpty()
+    {
+        return (size == 0);
+    }
+
+    /**
+     * Get the size
+     * @return The number of moves waiting
+     */
+    public int getSize()
+    {
+        return this.size;
+    }
+}
@@ -0,0 +1,163 @@
+package com.gamesbykevin.sokoban.player;
+
+import com.gamesbykevin.sokoban.level.Level;
+import com.gamesbykevin.sokoban.level.tile.TileHelper;
+
+/**
+ * Find the shortest path for the player to walk to a location in the level.<br>
+ * A breadth first search is performed over the level grid, the buffers are re-used for each search.
+ * @author GOD
+ */
+public final class PathFinder
+{
+    //the cells waiting to be checked
+    private int[] open;
+
+    //the search each cell was last visited in
+    private int[] visited;
+
+    //the direction taken to reach each cell
+    private byte[] directions;
+
+    //the directions of the path found, from the end back to the start
+    private byte[] path;
+
+    //the current search, so we don't have to clear the visited cells each time
+    private int search = 0;
+
+    /**
+     * Create a new path finder
+     */
+    public PathFinder()
+    {
+        ensureCapacity(0);
+    }
+
+    /**
+     * Make sure the buffers are large enough for the specified number of cells
+     * @param cells The total number of cells in the level
+     */
+    private void ensureCapacity(final int cells)
+    {
+        //only create new buffers if needed
+        if (open != null && open.length >= cells)
+            return;
+
+        this.open = new int[cells];
+        this.visited = new int[cells];
+        this.directions = new byte[cells];
+        this.path = new byte[cells];
+        this.search = 0;
+    }
+
+    /**
+     * Can the player walk on the specified location?
+     * @param level Current level in play
+     * @param col Column
+     * @param row Row
+     * @return true if the location is a floor or goal with no block on it, false otherwise
+     */
+    public static boolean canWalk(final Level level, final int col, final int row)
+    {
+        //the player can only walk on the floor or goal
+        if (!TileHelper.isFloor(level.getType(col, row)) && !TileHelper.isGoal(level.getType(col, row)))
+            return false;
+
+        //the player can't walk through a block
+        return (level.getBlock(col, row) == null);
+    }
+
+    /**
+     * Find the shortest path from the start to the finish.<br>
+     * If a path is found the directions will be added to the queue.
+     * @param level Current level in play
+     * @param startCol Column where the player is
+     * @param startRow Row where the player is
+     * @param finishCol Column where the player wants to go
+     * @param finishRow Row where the player wants to go
+     * @param queue The queue to add the directions to
+     * @return true if a path was found, false otherwise
+     */
+    public boolean find(final Level level, final int startCol, final int startRow, final int finishCol, final int finishRow, final MoveQueue queue)
+    {
+        //if we can't walk to the finish there is no path
+        if (!canWalk(level, finishCol, finishRow))
+            return false;
+
+        //the size of the level
+        final int cols = level.getCols();
+        final int rows = level.getRows();
+
+        //make sure we have enough room
+        ensureCapacity(cols * rows);
+
+        //this is a new search
+        search++;
+
+        //the position of the start and finish
+        final int start = (startRow * cols) + startCol;
+        final int finish = (finishRow * cols) + finishCol;
+
+        //the start is where we begin
+        int head = 0, tail = 0;
+        open[tail++] = start;
+        visited[start] = search;
+
+        //continue while there are cells to check
+        while (head < tail && visited[finish] != search)
+        {
+            //get the next cell
+            final int current = open[head++];
+            final int col = current % cols;
+            final int row = current / cols;
+
+            //check each direction
+            for (byte direction = Journal.DIRECTION_EAST; direction <= Journal.DIRECTION_SOUTH; direction++)
+            {
+                final int neighborCol = col + Journal.getCol(direction);
+                final int neighborRow = row + Journal.getRow(direction);
+
+                //skip if out of bounds
+                if (neighborCol < 0 || neighborCol >= cols || neighborRow < 0 || neighborRow >= rows)
+                    continue;
+
+                final int neighbor = (neighborRow * cols) + neighborCol;
+
+                //skip if already visited, or we can't walk there
+                if (visited[neighbor] == search || !canWalk(level, neighborCol, neighborRow))
+                    continue;
+
+                //mark visited, and how we got here
+                visited[neighbor] = search;
+                directions[neighbor] = direction;
+
+                //add to the list to check
+                open[tail++] = neighbor;
+            }
+        }
+
+        //if the finish was never reached there is no path
+        if (visited[finish] != search)
+            return false;
+
+        //walk back from the finish to the start
+        int length = 0;
+
+        for (int current = finish; current != start; length++)
+        {
+            final byte direction = directions[current];
+            path[length] = direction;
+            current -= (Journal.getRow(direction) * cols) + Journal.getCol(direction);
+        }
+
+        //add the directions to the queue from the start to the finish
+        for (int index = length - 1; index >= 0; index--)
+        {
+            if (!queue.add(path[index]))
+                break;
+        }
+
+        //a path was found
+        return true;
+    }
+}
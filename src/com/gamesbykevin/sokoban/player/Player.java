@@ -2,6 +2,7 @@ package com.gamesbykevin.sokoban.player;
 
 import android.graphics.Canvas;
 import android.graphics.Paint;
+import android.graphics.Rect;
 
 import com.gamesbykevin.androidframework.anim.Animation;
 import com.gamesbykevin.androidframework.base.Cell;
@@ -9,11 +10,13 @@ import com.gamesbykevin.androidframework.base.Entity;
 import com.gamesbykevin.androidframework.resources.Images;
 import com.gamesbykevin.androidframework.text.TimeFormat;
 import com.gamesbykevin.sokoban.assets.Assets;
+import com.gamesbykevin.sokoban.camera.Camera;
 import com.gamesbykevin.sokoban.level.Level;
 import com.gamesbykevin.sokoban.level.LevelHelper;
 import com.gamesbykevin.sokoban.level.tile.TileHelper;
-import com.gamesbykevin.sokoban.panel.GamePanel;
-import com.gamesbykevin.sokoban.thread.MainThread;
+import com.gamesbykevin.sokoban.replay.Recorder;
+import com.gamesbykevin.sokoban.target.Target;
+import com.gamesbykevin.sokoban.timer.Timer;
 
 /**
  * The player that moves the blocks
@@ -36,8 +39,23 @@ public class Player extends Entity implements IPlayer
     //the number of moves the player has made
     public int moves = 0;
     
-    //store the previous location in case we want to undo
-    private double previousCol, previousRow;
+    //record of each move made so we can undo/redo
+    private Journal journal;
+    
+    //the moves waiting to be made
+    private MoveQueue queue;
+    
+    //how fast the moves are made
+    private Speed speed = Speed.Normal;
+    
+    //record of each move made and when, so the level can be replayed
+    private Recorder recorder;
+    
+    //the number of updates since the level started
+    private int frames = 0;
+    
+    //follows the player in levels that don't fit the window
+    private Camera camera;
     
     /**
      * The different animations for the player
@@ -54,13 +72,11 @@ public class Player extends Entity implements IPlayer
         IdleSouth
     }
     
-    //track the time (milliseconds)
-    private long totalTime = 0L;
+    //track the actual time spent in the level
+    private Timer timer;
     
-    /**
-     * The amount of milliseconds that is passed per update
-     */
-    private static final long TIME_LAPSED_UPDATE = (1000 / MainThread.FPS);
+    //the location at the previous update, used to render in between updates
+    private double previousCol, previousRow;
     
     /**
      * Location where player stat's are rendered
@@ -90,6 +106,21 @@ public class Player extends Entity implements IPlayer
         //create new destination
         this.target = new Cell();
         
+        //create new journal to record the moves
+        this.journal = new Journal();
+        
+        //create new queue for the moves waiting
+        this.queue = new MoveQueue();
+        
+        //create new recorder for the replay
+        this.recorder = new Recorder();
+        
+        //create new timer
+        this.timer = new Timer();
+        
+        //create new camera
+        this.camera = new Camera();
+        
         //delay between each frame
         final int delay = 250;
         
@@ -159,23 +190,120 @@ public class Player extends Entity implements IPlayer
         //set target
         setTarget(getCol(), getRow());
         
+        //there is no previous location to render from
+        setPrevious();
+        
+        //place the camera where the level starts
+        getCamera().reset(level);
+        
         //reset location
         updateXY(level);
         
         //reset moves back to 0
         setMoves(0);
         
-        //reset timer
-        this.totalTime = 0;
+        //remove all recorded moves
+        getJournal().reset();
+        
+        //remove all moves from the replay
+        getRecorder().reset();
+        
+        //make sure there is room to walk across the entire level
+        getQueue().ensureCapacity(level.getCols() * level.getRows());
+        
+        //reset timer, it will start on the next update
+        getTimer().reset();
+        this.frames = 0;
+    }
+    
+    /**
+     * Get the timer
+     * @return The timer tracking the actual time spent in the level
+     */
+    public Timer getTimer()
+    {
+        return this.timer;
     }
     
     /**
      * Get the time
-     * @return The total time elapsed
+     * @return The total time elapsed (milliseconds)
      */
     public long getTime()
     {
-        return this.totalTime;
+        return getTimer().getTime();
+    }
+    
+    /**
+     * Get the journal
+     * @return The record of moves made in the current level
+     */
+    public Journal getJournal()
+    {
+        return this.journal;
+    }
+    
+    /**
+     * Set the time
+     * @param time The total time elapsed (milliseconds)
+     */
+    public void setTime(final long time)
+    {
+        getTimer().setTime(time);
+    }
+    
+    /**
+     * Set the frames
+     * @param frames The number of updates since the level started
+     */
+    public void setFrames(final int frames)
+    {
+        this.frames = frames;
+    }
+    
+    /**
+     * Get the recorder
+     * @return The record of moves made in the current level and when they were made
+     */
+    public Recorder getRecorder()
+    {
+        return this.recorder;
+    }
+    
+    /**
+     * Get the frames
+     * @return The number of updates since the level started
+     */
+    public int getFrames()
+    {
+        return this.frames;
+    }
+    
+    /**
+     * Get the queue
+     * @return The moves waiting to be made
+     */
+    public MoveQueue getQueue()
+    {
+        return this.queue;
+    }
+    
+    /**
+     * Get the speed
+     * @return How fast the player and blocks move
+     */
+    public Speed getSpeed()
+    {
+        return this.speed;
+    }
+    
+    /**
+     * Set the speed
+     * @param speed How fast the player and blocks move
+     */
+    public void setSpeed(final Speed speed)
+    {
+        this.speed = speed;
     }
     
     /**
@@ -260,29 +388,35 @@ public class Player extends Entity implements IPlayer
     }
     
     /**
-     * Set the destination, and store the current location
+     * Set the destination
      * @param col Column
      * @param row Row
      */
     public void setTarget(final double col, final double row)
     {
-    	//store in case we use the undo button
-    	this.previousCol = getCol();
-    	this.previousRow = getRow();
-    	
         this.target.setCol(col);
         this.target.setRow(row);
     }
     
     /**
-     * Reset the location to the previous
+     * Store the current location as the previous location, called before each update
      */
-    public void undo()
+    public void setPrevious()
     {
-    	setCol(this.previousCol);
-    	setRow(this.previousRow);
-    	
-    	setTarget(getCol(), getRow());
+        this.previousCol = getCol();
+        this.previousRow = getRow();
+        
+        //the camera is rendered in between updates as well
+        getCamera().setPrevious();
+    }
+    
+    /**
+     * Get the camera
+     * @return The camera following the player in levels that don't fit the window
+     */
+    public Camera getCamera()
+    {
+        return this.camera;
     }
     
     /**
@@ -290,10 +424,21 @@ public class Player extends Entity implements IPlayer
      * @param level The level we are interacting with
      */
     public void updateXY(final Level level)
+    {
+        updateXY(level, getCol(), getRow());
+    }
+    
+    /**
+     * Update the (x,y) location for the player at the specified location
+     * @param level The level we are interacting with
+     * @param col Column
+     * @param row Row
+     */
+    private void updateXY(final Level level, final double col, final double row)
     {
         //get start destination
-        final double x = LevelHelper.getX(level, getCol());
-        final double y = LevelHelper.getY(level, getRow());
+        final double x = LevelHelper.getX(level, col);
+        final double y = LevelHelper.getY(level, row);
 
         //place in the center
         setX(x + (TileHelper.DEFAULT_DIMENSION / 2) - (getWidth() / 2));
@@ -306,8 +451,39 @@ public class Player extends Entity implements IPlayer
      */
     public void update(final Level level)
     {
-        //add the difference to the total time
-        this.totalTime += TIME_LAPSED_UPDATE;
+        //store the location before it changes, so we can render in between updates
+        setPrevious();
+        
+        //the camera follows the player in levels that don't fit the window
+        if (!level.canFitWindow())
+            getCamera().update(getCol(), getRow());
+        
+        //make sure the timer is counting, it is paused when the game isn't running
+        getTimer().start();
+        this.frames++;
+        
+        //if the moves are instant, make every move waiting and only render the result
+        if (getSpeed().isInstant() && hasTarget() && !getQueue().isEmpty() && level.hasDestination())
+        {
+            //stop once the level has been solved
+            while (!getQueue().isEmpty() && !LevelHelper.hasCompleted(level))
+            {
+                PlayerHelper.jump(this, level, getQueue().poll());
+            }
+            
+            //any remaining moves are not needed
+            getQueue().clear();
+            
+            //player is no longer selected
+            setSelected(false);
+            
+            updateRenderCoordinates(level);
+            return;
+        }
+        
+        //if we are at our target and the blocks aren't moving, make the next move waiting (if any) unless the level was just solved
+        if (hasTarget() && !getQueue().isEmpty() && level.hasDestination() && !LevelHelper.hasCompleted(level))
+            PlayerHelper.move(this, level, getQueue().poll());
         
         if (!hasTarget())
         {
@@ -334,27 +510,65 @@ public class Player extends Entity implements IPlayer
         }
     }
     
+    /**
+     * Add the area where the player is rendered in between the previous and current update.<br>
+     * The moves and timer displayed are included since they change while playing
+     * @param level The current level
+     * @param dirty The area that needs to be rendered again
+     */
+    public void addDirty(final Level level, final Rect dirty)
+    {
+        //offset to center the player in the cell
+        final double offsetX = (TileHelper.DEFAULT_DIMENSION / 2) - (getWidth() / 2);
+        final double offsetY = (TileHelper.DEFAULT_DIMENSION / 2) - (getHeight() / 2);
+        
+        //the player is always included so the animation stays current
+        dirty.union(
+            (int)Math.floor(LevelHelper.getX(level, Math.min(previousCol, getCol())) + offsetX), 
+            (int)Math.floor(LevelHelper.getY(level, Math.min(previousRow, getRow())) + offsetY), 
+            (int)Math.ceil(LevelHelper.getX(level, Math.max(previousCol, getCol())) + offsetX + getWidth()), 
+            (int)Math.ceil(LevelHelper.getY(level, Math.max(previousRow, getRow())) + offsetY + getHeight())
+        );
+        
+        //the moves and timer
+        dirty.union(0, 0, PERSONAL_BEST_INFO_X, INFO_Y * 4);
+    }
+    
     public void updateRenderCoordinates(final Level level)
     {
-        if (level.canFitWindow())
-        {
-            //update (x,y) render coordinates
-            updateXY(level);
-        }
-        else
-        {
-            //locate middle of screen
-            final int middleX = (GamePanel.WIDTH / 2) - (TileHelper.DEFAULT_DIMENSION / 2);
-            final int middleY = (GamePanel.HEIGHT / 2) - (TileHelper.DEFAULT_DIMENSION / 2);
-            
-            //set the start location (x,y) relative to where the player start is
-            level.setStartLocation(
-            middleX - (int)(getCol() * TileHelper.DEFAULT_DIMENSION), 
-            middleY - (int)(getRow() * TileHelper.DEFAULT_DIMENSION));
-            
-            //update (x,y) render coordinates
-            updateXY(level);
-        }
+        updateRenderCoordinates(level, getCol(), getRow(), 1);
+    }
+    
+    /**
+     * Update the render coordinates between the previous and current location
+     * @param level The current level
+     * @param interpolation How far we are between the previous update and the next (0 - 1)
+     */
+    public void updateRenderCoordinates(final Level level, final float interpolation)
+    {
+        updateRenderCoordinates(
+            level, 
+            Target.interpolate(previousCol, getCol(), interpolation), 
+            Target.interpolate(previousRow, getRow(), interpolation), 
+            interpolation
+        );
+    }
+    
+    /**
+     * Update the render coordinates, if the level doesn't fit the window the start location will be assigned from the camera
+     * @param level The current level
+     * @param col Column
+     * @param row Row
+     * @param interpolation How far we are between the previous update and the next (0 - 1)
+     */
+    private void updateRenderCoordinates(final Level level, final double col, final double row, final float interpolation)
+    {
+        //the camera only moves in levels that don't fit the window
+        if (!level.canFitWindow())
+            getCamera().apply(level, interpolation);
+        
+        //update (x,y) render coordinates
+        updateXY(level, col, row);
     }
     
     @Override
@@ -363,6 +577,11 @@ public class Player extends Entity implements IPlayer
         super.dispose();
         
         target = null;
+        journal = null;
+        queue = null;
+        recorder = null;
+        timer = null;
+        camera = null;
     }
     
     @Override
@@ -3,7 +3,6 @@ package com.gamesbykevin.sokoban.player;
 import com.gamesbykevin.sokoban.level.Level;
 import com.gamesbykevin.sokoban.level.tile.TileHelper;
 import com.gamesbykevin.sokoban.target.Target;
-import com.gamesbykevin.sokoban.thread.MainThread;
 
 /**
  * Player helper methods
@@ -77,8 +76,8 @@ public class PlayerHelper
      */
     public static void manageVelocity(final Player player)
     {
-    	//velocity will depend if debugging
-    	final double velocity = (MainThread.DEBUG) ? Player.VELOCITY_DEBUG : Player.VELOCITY;
+    	//velocity will depend on the speed selected
+    	final double velocity = player.getSpeed().getVelocity();
     	
         if (player.getCol() < player.getTarget().getCol())
         {
@@ -126,6 +125,59 @@ public class PlayerHelper
         }
     }
     
+    /**
+     * Move the player one cell in the specified direction.<br>
+     * The targets of the player and neighboring block (if exists) will be calculated
+     * @param player The player we want to move
+     * @param level Current level in play
+     * @param direction The direction to move e.g. Journal.DIRECTION_EAST, Journal.DIRECTION_WEST, etc...
+     */
+    public static void move(final Player player, final Level level, final byte direction)
+    {
+        //assign the player destination
+        player.setTarget(player.getCol() + Journal.getCol(direction), player.getRow() + Journal.getRow(direction));
+        
+        //calculate the targets
+        calculateTargets(player, level);
+    }
+    
+    /**
+     * Move the player one cell in the specified direction without walking between the cells.<br>
+     * The player and the block pushed (if any) are placed at their target right away
+     * @param player The player we want to move
+     * @param level Current level in play
+     * @param direction The direction to move e.g. Journal.DIRECTION_EAST, Journal.DIRECTION_WEST, etc...
+     */
+    public static void jump(final Player player, final Level level, final byte direction)
+    {
+        //calculate the targets as a normal move
+        move(player, level, direction);
+        
+        //if the player can't move there is nothing else to do
+        if (player.hasTarget())
+            return;
+        
+        //the cell in front of the player's target, where a pushed block will be headed
+        final int col = (int)player.getTarget().getCol() + Journal.getCol(direction);
+        final int row = (int)player.getTarget().getRow() + Journal.getRow(direction);
+        
+        //if a block is headed there, place it now
+        final Target block = level.getBlock(col, row);
+        
+        if (block != null && !block.hasDestination())
+            level.placeBlock(block, col, row);
+        
+        //face the direction moved
+        startWalking(player);
+        
+        //place the player at the target
+        player.setCol(player.getTarget().getCol());
+        player.setRow(player.getTarget().getRow());
+        
+        //the player is standing still
+        stopWalking(player);
+    }
+    
     /**
      * Calculate the targets.<br>
      * We will determine the target of the player, as well as the neighboring block (if exists)
@@ -134,47 +186,33 @@ public class PlayerHelper
      */
     public static void calculateTargets(final Player player, final Level level)
     {
-    	//make sure all targets in a level have the current destination marked
-    	for (Target block : level.getCurrent())
-    	{
-    		//assign current location so the undo is correct
-    		block.setDestination(block.getCol(), block.getRow());
-    	}
-    	
-        //the neighboring locations
-        final int col1, row1;
-        final int col2, row2;
+        //the direction the player is heading
+        final byte direction;
         
-        //determine where the neighbor locations are
+        //determine which direction the player is heading
         if (player.getCol() < player.getTarget().getCol())
         {
-            col1 = (int)player.getCol() + 1;
-            row1 = (int)player.getRow();
-            col2 = col1 + 1;
-            row2 = row1;
+            direction = Journal.DIRECTION_EAST;
         }
         else if (player.getCol() > player.getTarget().getCol())
         {
-            col1 = (int)player.getCol() - 1;
-            row1 = (int)player.getRow();
-            col2 = col1 - 1;
-            row2 = row1;
+            direction = Journal.DIRECTION_WEST;
         }
         else if (player.getRow() < player.getTarget().getRow())
         {
-            col1 = (int)player.getCol();
-            row1 = (int)player.getRow() + 1;
-            col2 = col1;
-            row2 = row1 + 1;
+            direction = Journal.DIRECTION_SOUTH;
         }
         else 
         {
             //(player.getRow() > player.getTarget().getRow())
-            col1 = (int)player.getCol();
-            row1 = (int)player.getRow() - 1;
-            col2 = col1;
-            row2 = row1 - 1;
+            direction = Journal.DIRECTION_NORTH;
         }
+        
+        //the neighboring locations
+        final int col1 = (int)player.getCol() + Journal.getCol(direction);
+        final int row1 = (int)player.getRow() + Journal.getRow(direction);
+        final int col2 = col1 + Journal.getCol(direction);
+        final int row2 = row1 + Journal.getRow(direction);
             
         //if there is a wall directly next door
         if (TileHelper.isWall(level.getType(col1, row1)))
@@ -199,10 +237,14 @@ public class PlayerHelper
                     player.setTarget(col1, row1);
                     
                     //move the block as well
-                    level.getBlock(col1, row1).setDestination(col2, row2);
+                    level.moveBlock(level.getBlock(col1, row1), col2, row2);
                     
                     //increase move count
                     player.setMoves(player.getMoves() + 1);
+                    
+                    //record the move with the push
+                    player.getJournal().record(direction, true);
+                    player.getRecorder().record(Journal.getMove(direction, true), player.getFrames());
                 }
             }
             else
@@ -212,7 +254,109 @@ public class PlayerHelper
                 
                 //increase move count
                 player.setMoves(player.getMoves() + 1);
+                
+                //record the move
+                player.getJournal().record(direction, false);
+                player.getRecorder().record(Journal.getMove(direction, false), player.getFrames());
             }
         }
     }
+    
+    /**
+     * Undo the previous move in the journal.<br>
+     * The player and the block that was pushed (if any) will be placed at their previous location.
+     * @param player The player we are checking
+     * @param level Current level in play
+     * @return true if a move was undone, false if there are no moves to undo
+     */
+    public static boolean undo(final Player player, final Level level)
+    {
+        //if there is nothing to undo we can't continue
+        if (!player.getJournal().canUndo())
+            return false;
+        
+        //get the move we are undoing
+        final byte move = player.getJournal().undo();
+        
+        //the move is no longer part of the recording
+        player.getRecorder().undo();
+        
+        //the direction of the move
+        final byte direction = Journal.getDirection(move);
+        
+        //where the player ended up after the move
+        final int col = (int)player.getTarget().getCol();
+        final int row = (int)player.getTarget().getRow();
+        
+        //if a block was pushed, it is now in front of the player
+        if (Journal.hasPush(move))
+        {
+            //move the block back to where the player is
+            level.placeBlock(
+                level.getBlock(col + Journal.getCol(direction), row + Journal.getRow(direction)), 
+                col, 
+                row
+            );
+        }
+        
+        //place the player back at the previous location
+        player.setCol(col - Journal.getCol(direction));
+        player.setRow(row - Journal.getRow(direction));
+        player.setTarget(player.getCol(), player.getRow());
+        
+        //decrease move count, the same as redo increases it
+        player.setMoves(Math.max(0, player.getMoves() - 1));
+        
+        //the move was undone
+        return true;
+    }
+    
+    /**
+     * Redo the next move in the journal.<br>
+     * The player and the block that was pushed (if any) will be placed at their new location.
+     * @param player The player we are checking
+     * @param level Current level in play
+     * @return true if a move was redone, false if there are no moves to redo
+     */
+    public static boolean redo(final Player player, final Level level)
+    {
+        //if there is nothing to redo we can't continue
+        if (!player.getJournal().canRedo())
+            return false;
+        
+        //get the move we are redoing
+        final byte move = player.getJournal().redo();
+        
+        //the move is part of the recording again
+        player.getRecorder().record(move, player.getFrames());
+        
+        //the direction of the move
+        final byte direction = Journal.getDirection(move);
+        
+        //where the player will end up after the move
+        final int col = (int)player.getTarget().getCol() + Journal.getCol(direction);
+        final int row = (int)player.getTarget().getRow() + Journal.getRow(direction);
+        
+        //if a block was pushed, it is where the player is going
+        if (Journal.hasPush(move))
+        {
+            //move the block forward
+            level.placeBlock(
+                level.getBlock(col, row), 
+                col + Journal.getCol(direction), 
+                row + Journal.getRow(direction)
+            );
+        }
+        
+        //place the player at the new location
+        player.setCol(col);
+        player.setRow(row);
+        player.setTarget(col, row);
+        
+        //increase move count
+        player.setMoves(player.getMoves() + 1);
+        
+        //the move was redone
+        return true;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,447 @@
+package com.gamesbykevin.sokoban.player;
+
+import com.gamesbykevin.sokoban.level.Level;
+import com.gamesbykevin.sokoban.target.Target;
+
+/**
+ * Plan the moves needed for the player to push a block to a location in the level.<br>
+ * Each state is the location of the block and the side of the block the player is on.<br>
+ * The player can push the block (1 move) or walk around to another side of the block.<br>
+ * The plan with the fewest total moves (walking and pushing) is found, the buffers are re-used for each plan.
+ * @author GOD
+ */
+public final class PushPlanner
+{
+    /**
+     * The number of sides the player can push a block from
+     */
+    private static final int SIDES = 4;
+
+    //the size of the level we are planning for
+    private int cols, rows;
+
+    //the cells the player and block can't move through (walls, other blocks, etc...)
+    private boolean[] blocked;
+
+    //the fewest moves found to reach each state
+    private int[] cost;
+
+    //the state we came from to reach each state
+    private int[] previous;
+
+    //the plan each state was last reached/settled in
+    private int[] reached, settled;
+
+    //the states waiting to be checked (cost in the upper bits, state in the lower bits)
+    private long[] heap;
+
+    //the cells waiting to be checked when walking
+    private int[] open;
+
+    //the walk each cell was last visited in, and the distance/direction it was reached with
+    private int[] visited, distance;
+    private byte[] directions;
+
+    //the states/directions of the plan found
+    private int[] states;
+    private byte[] path;
+
+    //the current plan and walk, so we don't have to clear the buffers each time
+    private int plan = 0, walk = 0;
+
+    /**
+     * Create a new planner
+     */
+    public PushPlanner()
+    {
+        ensureCapacity(0);
+    }
+
+    /**
+     * Make sure the buffers are large enough for the specified number of cells
+     * @param cells The total number of cells in the level
+     */
+    private void ensureCapacity(final int cells)
+    {
+        //only create new buffers if needed
+        if (blocked != null && blocked.length >= cells)
+            return;
+
+        this.blocked = new boolean[cells];
+        this.cost = new int[cells * SIDES];
+        this.previous = new int[cells * SIDES];
+        this.reached = new int[cells * SIDES];
+        this.settled = new int[cells * SIDES];
+        this.heap = new long[(cells * SIDES * SIDES) + SIDES];
+        this.open = new int[cells];
+        this.visited = new int[cells];
+        this.distance = new int[cells];
+        this.directions = new byte[cells];
+        this.states = new int[cells * SIDES];
+        this.path = new byte[cells];
+        this.plan = 0;
+        this.walk = 0;
+    }
+
+    /**
+     * Find the fewest moves for the player to push the specified block to the finish.<br>
+     * If a plan is found the directions will replace any moves waiting in the queue.
+     * @param level Current level in play
+     * @param player The player pushing the block
+     * @param block The block we want to move
+     * @param finishCol Column where the block needs to go
+     * @param finishRow Row where the block needs to go
+     * @param queue The queue to add the directions to
+     * @return true if a plan was found and every move was added, false otherwise
+     */
+    public boolean find(final Level level, final Player player, final Target block, final int finishCol, final int finishRow, final MoveQueue queue)
+    {
+        //the size of the level
+        this.cols = level.getCols();
+        this.rows = level.getRows();
+
+        //make sure we have enough room
+        ensureCapacity(cols * rows);
+
+        //the block can't be moved outside of the level
+        if (finishCol < 0 || finishCol >= cols || finishRow < 0 || finishRow >= rows)
+            return false;
+
+        //mark the cells we can't move through, the block we are moving is not included
+        for (int row = 0; row < rows; row++)
+        {
+            for (int col = 0; col < cols; col++)
+            {
+                blocked[(row * cols) + col] = !PathFinder.canWalk(level, col, row) && level.getBlock(col, row) != block;
+            }
+        }
+
+        //the block can't be moved onto something else
+        final int finish = (finishRow * cols) + finishCol;
+
+        if (blocked[finish])
+            return false;
+
+        //this is a new plan
+        plan++;
+
+        //where the player and block start
+        final int begin = ((int)player.getTarget().getRow() * cols) + (int)player.getTarget().getCol();
+        final int start = ((int)block.getDestination().getRow() * cols) + (int)block.getDestination().getCol();
+
+        //the number of states waiting
+        int size = 0;
+
+        //walk to each side of the block to start
+        walk(begin, start);
+
+        for (byte direction = Journal.DIRECTION_EAST; direction <= Journal.DIRECTION_SOUTH; direction++)
+        {
+            final int side = getSide(start, direction);
+
+            //if the player can reach the side, add it
+            if (side >= 0 && visited[side] == walk)
+                size = add(getState(start, direction), distance[side], -1, size);
+        }
+
+        //the state that reached the finish
+        int result = -1;
+
+        //continue while there are states to check
+        while (size > 0)
+        {
+            //get the state with the fewest moves
+            final long next = heap[0];
+            heap[0] = heap[--size];
+            sift(size);
+
+            final int state = (int)next;
+
+            //skip if we already settled this state
+            if (settled[state] == plan)
+                continue;
+
+            settled[state] = plan;
+
+            final int cell = state / SIDES;
+            final byte direction = (byte)(state % SIDES);
+
+            //if the block reached the finish we are done
+            if (cell == finish)
+            {
+                result = state;
+                break;
+            }
+
+            //push the block in the current direction
+            final int push = getNeighbor(cell, direction);
+
+            if (push >= 0 && !blocked[push])
+                size = add(getState(push, direction), cost[state] + 1, state, size);
+
+            //walk around the block to the other sides
+            walk(getSide(cell, direction), cell);
+
+            for (byte other = Journal.DIRECTION_EAST; other <= Journal.DIRECTION_SOUTH; other++)
+            {
+                final int side = getSide(cell, other);
+
+                if (other != direction && side >= 0 && visited[side] == walk)
+                    size = add(getState(cell, other), cost[state] + distance[side], state, size);
+            }
+        }
+
+        //if the finish was never reached there is no plan
+        if (result < 0)
+            return false;
+
+        //walk back from the finish to the start
+        int length = 0;
+
+        for (int state = result; state >= 0; state = previous[state])
+        {
+            states[length++] = state;
+        }
+
+        //make sure the queue has room for every move of the plan (walking and pushing)
+        queue.ensureCapacity(cost[result]);
+
+        //the player walks to the first side of the block
+        int current = begin;
+
+        //add the moves to the queue from the start to the finish
+        for (int index = length - 1; index >= 0; index--)
+        {
+            final int cell = states[index] / SIDES;
+            final byte direction = (byte)(states[index] % SIDES);
+            final int side = getSide(cell, direction);
+
+            //if the player is not on this side, walk around the block
+            if (current != side)
+            {
+                walk(current, cell);
+
+                if (!addPath(current, side, queue))
+                {
+                    //don't leave part of the plan in the queue
+                    queue.clear();
+                    return false;
+                }
+            }
+
+            //if there is another state, the block is pushed if the location changed
+            if (index > 0 && states[index - 1] / SIDES != cell)
+            {
+                if (!queue.add(direction))
+                {
+                    //don't leave part of the plan in the queue
+                    queue.clear();
+                    return false;
+                }
+
+                //the player is now where the block was
+                current = cell;
+            }
+            else
+            {
+                current = side;
+            }
+        }
+
+        //a plan was found and added
+        return true;
+    }
+
+    /**
+     * Add a state to check, if it has fewer moves than previously found
+     * @param state The state
+     * @param moves The total moves to reach the state
+     * @param from The state we came from, -1 if this is a starting state
+     * @param size The number of states waiting
+     * @return The number of states waiting after adding
+     */
+    private int add(final int state, final int moves, final int from, int size)
+    {
+        //skip if we already found a plan with the same or fewer moves
+        if (reached[state] == plan && cost[state] <= moves)
+            return size;
+
+        reached[state] = plan;
+        cost[state] = moves;
+        previous[state] = from;
+
+        //add to the end and move up to the correct position
+        int index = size++;
+        final long value = ((long)moves << 32) | state;
+
+        while (index > 0)
+        {
+            final int parent = (index - 1) / 2;
+
+            if (heap[parent] <= value)
+                break;
+
+            heap[index] = heap[parent];
+            index = parent;
+        }
+
+        heap[index] = value;
+        return size;
+    }
+
+    /**
+     * Move the first state waiting down to the correct position
+     * @param size The number of states waiting
+     */
+    private void sift(final int size)
+    {
+        if (size == 0)
+            return;
+
+        final long value = heap[0];
+        int index = 0;
+
+        while (true)
+        {
+            int child = (index * 2) + 1;
+
+            if (child >= size)
+                break;
+
+            if (child + 1 < size && heap[child + 1] < heap[child])
+                child++;
+
+            if (heap[child] >= value)
+                break;
+
+            heap[index] = heap[child];
+            index = child;
+        }
+
+        heap[index] = value;
+    }
+
+    /**
+     * Find the distance the player has to walk to each cell.<br>
+     * The block is treated as a wall so the player has to walk around it
+     * @param start The cell where the player is
+     * @param block The cell where the block is
+     */
+    private void walk(final int start, final int block)
+    {
+        //this is a new walk
+        walk++;
+
+        int head = 0, tail = 0;
+        open[tail++] = start;
+        visited[start] = walk;
+        distance[start] = 0;
+
+        while (head < tail)
+        {
+            final int current = open[head++];
+
+            for (byte direction = Journal.DIRECTION_EAST; direction <= Journal.DIRECTION_SOUTH; direction++)
+            {
+                final int neighbor = getNeighbor(current, direction);
+
+                //skip if out of bounds, visited, blocked, or the block
+                if (neighbor < 0 || visited[neighbor] == walk || blocked[neighbor] || neighbor == block)
+                    continue;
+
+                visited[neighbor] = walk;
+                distance[neighbor] = distance[current] + 1;
+                directions[neighbor] = direction;
+                open[tail++] = neighbor;
+            }
+        }
+    }
+
+    /**
+     * Add the directions of the last walk from the start to the finish to the queue
+     * @param start Cell where the walk started
+     * @param finish Cell where the walk finishes
+     * @param queue The queue to add the directions to
+     * @return true if all directions were added, false otherwise
+     */
+    private boolean addPath(final int start, final int finish, final MoveQueue queue)
+    {
+        int length = 0;
+
+        for (int current = finish; current != start; length++)
+        {
+            final byte direction = directions[current];
+            path[length] = direction;
+            current -= (Journal.getRow(direction) * cols) + Journal.getCol(direction);
+        }
+
+        for (int index = length - 1; index >= 0; index--)
+        {
+            if (!queue.add(path[index]))
+                return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Get the state
+     * @param cell The cell where the block is
+     * @param direction The direction the block will be pushed
+     * @return The unique state of the block location and player side
+     */
+    private static int getState(final int cell, final byte direction)
+    {
+        return (cell * SIDES) + direction;
+    }
+
+    /**
+     * Get the cell the player needs to be on to push the block
+     * @param cell The cell where the block is
+     * @param direction The direction the block will be pushed
+     * @return The cell behind the block, -1 if out of bounds
+     */
+    private int getSide(final int cell, final byte direction)
+    {
+        //the opposite of the direction
+        final byte opposite;
+
+        switch (direction)
+        {
+            case Journal.DIRECTION_EAST:
+                opposite = Journal.DIRECTION_WEST;
+                break;
+
+            case Journal.DIRECTION_WEST:
+                opposite = Journal.DIRECTION_EAST;
+                break;
+
+            case Journal.DIRECTION_NORTH:
+                opposite = Journal.DIRECTION_SOUTH;
+                break;
+
+            default:
+                opposite = Journal.DIRECTION_NORTH;
+                break;
+        }
+
+        return getNeighbor(cell, opposite);
+    }
+
+    /**
+     * Get the neighboring cell
+     * @param cell The current cell
+     * @param direction The direction of the neighbor
+     * @return The neighboring cell, -1 if out of bounds
+     */
+    private int getNeighbor(final int cell, final byte direction)
+    {
+        final int col = (cell % cols) + Journal.getCol(direction);
+        final int row = (cell / cols) + Journal.getRow(direction);
+
+        if (col < 0 || col >= cols || row < 0 || row >= rows)
+            return -1;
+
+        return (row * cols) + col;
+    }
+}
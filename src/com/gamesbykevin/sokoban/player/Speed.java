@@ -0,0 +1,58 @@
+package com.gamesbykevin.sokoban.player;
+
+import com.gamesbykevin.sokoban.thread.MainThread;
+
+/**
+ * The different speeds the player and blocks can move
+ * @author GOD
+ */
+public enum Speed
+{
+    Normal("Normal", Player.VELOCITY),
+    Fast("Fast", Player.VELOCITY * 2),
+    Turbo("Turbo", Player.VELOCITY * 4),
+    Instant("Instant", 1);
+    
+    //the text description of the speed
+    private final String desc;
+    
+    //the distance moved per update (columns/rows), instant moves a full cell in case anything is still moving
+    private final double velocity;
+    
+    private Speed(final String desc, final double velocity)
+    {
+        this.desc = desc;
+        this.velocity = velocity;
+    }
+    
+    /**
+     * Get the description
+     * @return The text description we want to display to the user
+     */
+    public String getDesc()
+    {
+        return this.desc;
+    }
+    
+    /**
+     * Get the velocity
+     * @return The distance moved per update (columns/rows)
+     */
+    public double getVelocity()
+    {
+        //velocity will depend if debugging
+        if (this == Normal && MainThread.DEBUG)
+            return Player.VELOCITY_DEBUG;
+        
+        return this.velocity;
+    }
+    
+    /**
+     * Are the moves made instantly?
+     * @return true if the moves are applied without moving between cells, false otherwise
+     */
+    public boolean isInstant()
+    {
+        return (this == Instant);
+    }
+}
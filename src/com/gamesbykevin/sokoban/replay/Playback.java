@@ -0,0 +1,313 @@
+package com.gamesbykevin.sokoban.replay;
+
+import com.gamesbykevin.sokoban.level.Level;
+import com.gamesbykevin.sokoban.player.Journal;
+import com.gamesbykevin.sokoban.player.Player;
+import com.gamesbykevin.sokoban.player.PlayerHelper;
+import com.gamesbykevin.sokoban.target.Target;
+
+import java.util.List;
+
+/**
+ * Play back a replay in the level at a chosen rate.<br>
+ * The location of the player and blocks is saved every few moves, so we can seek to any move<br>
+ * by restoring the closest snapshot and applying the few moves after it.
+ * @author GOD
+ */
+public final class Playback
+{
+    /**
+     * The number of moves between each snapshot
+     */
+    private static final int SNAPSHOT_INTERVAL = 32;
+    
+    /**
+     * The slowest rate we can play back at
+     */
+    public static final double RATE_MIN = 0.5;
+    
+    /**
+     * The fastest rate we can play back at
+     */
+    public static final double RATE_MAX = 64;
+    
+    //the replay we are playing
+    private final Replay replay;
+    
+    //the level and player the replay is played in
+    private final Level level;
+    private final Player player;
+    
+    //the number of columns in the level
+    private final int cols;
+    
+    //the cell of the player followed by the cell of each block, for every snapshot
+    private final int[] snapshots;
+    
+    //the cell of the player and each block while applying moves
+    private int cell;
+    private final int[] blocks;
+    
+    //the block (index + 1) on each cell, 0 if there is no block
+    private final int[] occupied;
+    
+    //the number of moves that have been played
+    private int index = 0;
+    
+    //the current frame of the playback
+    private double frame = 0;
+    
+    //how fast we are playing, 1 is the speed the moves were made
+    private double rate = 1;
+    
+    /**
+     * Create a new playback.<br>
+     * The level and player need to be at the start of the level.
+     * @param replay The replay we want to play
+     * @param level The level the replay is for
+     * @param player The player making the moves
+     */
+    public Playback(final Replay replay, final Level level, final Player player)
+    {
+        this.replay = replay;
+        this.level = level;
+        this.player = player;
+        this.cols = level.getCols();
+        
+        final List<Target> current = level.getCurrent();
+        
+        this.blocks = new int[current.size()];
+        this.occupied = new int[level.getCols() * level.getRows()];
+        this.snapshots = new int[((replay.getCount() / SNAPSHOT_INTERVAL) + 1) * (blocks.length + 1)];
+        
+        //the starting location of the player and blocks
+        this.cell = getCell(player.getTarget().getCol(), player.getTarget().getRow());
+        
+        for (int index = 0; index < blocks.length; index++)
+        {
+            blocks[index] = getCell(current.get(index).getDestination().getCol(), current.get(index).getDestination().getRow());
+            occupied[blocks[index]] = index + 1;
+        }
+        
+        //apply every move, saving the location every few moves
+        for (int index = 0; index < replay.getCount(); index++)
+        {
+            if (index % SNAPSHOT_INTERVAL == 0)
+                save(index / SNAPSHOT_INTERVAL);
+            
+            apply(replay.getMove(index));
+        }
+        
+        //the last snapshot if the count is a multiple of the interval
+        if (replay.getCount() % SNAPSHOT_INTERVAL == 0)
+            save(replay.getCount() / SNAPSHOT_INTERVAL);
+        
+        //start at the beginning
+        seek(0);
+    }
+    
+    /**
+     * Get the cell
+     * @param col Column
+     * @param row Row
+     * @return The position of the location in the level
+     */
+    private int getCell(final double col, final double row)
+    {
+        return ((int)row * cols) + (int)col;
+    }
+    
+    /**
+     * Save the current location of the player and blocks
+     * @param snapshot The snapshot we are saving
+     */
+    private void save(final int snapshot)
+    {
+        final int start = snapshot * (blocks.length + 1);
+        
+        snapshots[start] = cell;
+        System.arraycopy(blocks, 0, snapshots, start + 1, blocks.length);
+    }
+    
+    /**
+     * Restore the location of the player and blocks
+     * @param snapshot The snapshot we are restoring
+     */
+    private void restore(final int snapshot)
+    {
+        final int start = snapshot * (blocks.length + 1);
+        
+        //remove the blocks from their current location
+        for (int index = 0; index < blocks.length; index++)
+        {
+            occupied[blocks[index]] = 0;
+        }
+        
+        cell = snapshots[start];
+        System.arraycopy(snapshots, start + 1, blocks, 0, blocks.length);
+        
+        //place the blocks at their restored location
+        for (int index = 0; index < blocks.length; index++)
+        {
+            occupied[blocks[index]] = index + 1;
+        }
+    }
+    
+    /**
+     * Apply the move to the location of the player and blocks
+     * @param move The recorded move
+     */
+    private void apply(final byte move)
+    {
+        final byte direction = Journal.getDirection(move);
+        final int offset = (Journal.getRow(direction) * cols) + Journal.getCol(direction);
+        
+        //the player moves to the next cell
+        cell += offset;
+        
+        //if a block was pushed it moves in the same direction
+        if (Journal.hasPush(move) && occupied[cell] > 0)
+        {
+            final int block = occupied[cell] - 1;
+            
+            occupied[cell] = 0;
+            blocks[block] = cell + offset;
+            occupied[blocks[block]] = block + 1;
+        }
+    }
+    
+    /**
+     * Move the player and blocks in the level to match the applied moves
+     */
+    private void place()
+    {
+        final int col = cell % cols;
+        final int row = cell / cols;
+        
+        //place the player
+        player.setCol(col);
+        player.setRow(row);
+        player.setTarget(col, row);
+        player.setMoves(this.index);
+        
+        //place each block
+        for (int index = 0; index < blocks.length; index++)
+        {
+            level.restoreBlock(level.getCurrent().get(index), blocks[index] % cols, blocks[index] / cols);
+        }
+        
+        player.updateRenderCoordinates(level);
+    }
+    
+    /**
+     * Go to the specified move.<br>
+     * The closest snapshot is restored and no more than SNAPSHOT_INTERVAL moves are applied.
+     * @param index The number of moves we want played, will be kept in range
+     */
+    public void seek(final int index)
+    {
+        //stay in bounds
+        this.index = Math.max(0, Math.min(index, replay.getCount()));
+        
+        //restore the closest snapshot before the move
+        final int snapshot = this.index / SNAPSHOT_INTERVAL;
+        restore(snapshot);
+        
+        //apply the remaining moves
+        for (int move = snapshot * SNAPSHOT_INTERVAL; move < this.index; move++)
+        {
+            apply(replay.getMove(move));
+        }
+        
+        //place everything in the level
+        place();
+        
+        //continue from the frame of the last move played
+        this.frame = (this.index > 0) ? replay.getFrame(this.index - 1) : 0;
+    }
+    
+    /**
+     * Get the index
+     * @return The number of moves that have been played
+     */
+    public int getIndex()
+    {
+        return this.index;
+    }
+    
+    /**
+     * Get the rate
+     * @return How fast we are playing, 1 is the speed the moves were made
+     */
+    public double getRate()
+    {
+        return this.rate;
+    }
+    
+    /**
+     * Set the rate
+     * @param rate How fast we want to play, will be kept between RATE_MIN and RATE_MAX
+     */
+    public void setRate(final double rate)
+    {
+        this.rate = Math.max(RATE_MIN, Math.min(rate, RATE_MAX));
+    }
+    
+    /**
+     * Have all the moves been played?
+     * @return true = yes, false = no
+     */
+    public boolean isFinished()
+    {
+        return (index >= replay.getCount());
+    }
+    
+    /**
+     * Play the moves that are due.<br>
+     * When playing faster than the moves were made, they are placed right away without walking between cells.
+     */
+    public void update()
+    {
+        //there is nothing left to play
+        if (isFinished())
+            return;
+        
+        //move forward in time
+        frame += rate;
+        
+        if (rate > 1)
+        {
+            //find the last move that is due
+            int last = index;
+            
+            while (last < replay.getCount() && replay.getFrame(last) <= frame)
+            {
+                last++;
+            }
+            
+            //jump to that move if any were due
+            if (last > index)
+            {
+                final double current = frame;
+                seek(last);
+                frame = current;
+            }
+        }
+        else if (replay.getFrame(index) <= frame)
+        {
+            //wait for the player and blocks to finish moving
+            if (!player.hasTarget() || !level.hasDestination())
+            {
+                frame = replay.getFrame(index);
+                return;
+            }
+            
+            //walk to the next cell
+            PlayerHelper.move(player, level, Journal.getDirection(replay.getMove(index)));
+            
+            //keep the applied location in sync
+            apply(replay.getMove(index));
+            index++;
+        }
+    }
+}
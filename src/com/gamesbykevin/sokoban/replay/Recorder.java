@@ -0,0 +1,109 @@
+package com.gamesbykevin.sokoban.replay;
+
+/**
+ * The recorder keeps every move the player has made in the level and the frame the move was made on.<br>
+ * When a move is undone it is removed, so the recording is always the path from the start to where the player is now.
+ * @author GOD
+ */
+public final class Recorder
+{
+    /**
+     * The number of moves we have room for when the recorder is created
+     */
+    private static final int DEFAULT_CAPACITY = 256;
+    
+    //the recorded moves
+    private byte[] moves;
+    
+    //the frame each move was made on
+    private int[] frames;
+    
+    //the number of moves recorded
+    private int count = 0;
+    
+    /**
+     * Create a new empty recorder
+     */
+    public Recorder()
+    {
+        this.moves = new byte[DEFAULT_CAPACITY];
+        this.frames = new int[DEFAULT_CAPACITY];
+    }
+    
+    /**
+     * Remove all recorded moves
+     */
+    public void reset()
+    {
+        this.count = 0;
+    }
+    
+    /**
+     * Restore the moves of a previous recording, replacing the existing moves
+     * @param replay The replay of the previous recording
+     */
+    public void restore(final Replay replay)
+    {
+        reset();
+        
+        for (int index = 0; index < replay.getCount(); index++)
+        {
+            record(replay.getMove(index), replay.getFrame(index));
+        }
+    }
+    
+    /**
+     * Record a new move
+     * @param move The move made, in the same format as the journal
+     * @param frame The frame the move was made on
+     */
+    public void record(final byte move, final int frame)
+    {
+        //if we ran out of room, increase the size by half
+        if (count >= moves.length)
+        {
+            final byte[] tmpMoves = new byte[moves.length + (moves.length / 2)];
+            final int[] tmpFrames = new int[tmpMoves.length];
+            System.arraycopy(moves, 0, tmpMoves, 0, count);
+            System.arraycopy(frames, 0, tmpFrames, 0, count);
+            this.moves = tmpMoves;
+            this.frames = tmpFrames;
+        }
+        
+        moves[count] = move;
+        frames[count] = frame;
+        count++;
+    }
+    
+    /**
+     * Remove the last recorded move
+     */
+    public void undo()
+    {
+        if (count > 0)
+            count--;
+    }
+    
+    /**
+     * Get the count
+     * @return The number of moves recorded
+     */
+    public int getCount()
+    {
+        return this.count;
+    }
+    
+    /**
+     * Create a replay of the moves recorded so far
+     * @return A replay with a copy of the recorded moves
+     */
+    public Replay getReplay()
+    {
+        final byte[] tmpMoves = new byte[count];
+        final int[] tmpFrames = new int[count];
+        System.arraycopy(moves, 0, tmpMoves, 0, count);
+        System.arraycopy(frames, 0, tmpFrames, 0, count);
+        
+        return new Replay(tmpMoves, tmpFrames, count);
+    }
+}
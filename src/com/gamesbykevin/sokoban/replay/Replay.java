@@ -0,0 +1,294 @@
+package com.gamesbykevin.sokoban.replay;
+
+import android.app.Activity;
+import android.content.Context;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+
+/**
+ * A replay is the list of moves made in a level and the frame each move was made on.<br>
+ * It is stored as a compact binary: a small header, then each move as a single byte followed by the frames since the previous move.<br>
+ * The frames are written as a variable length number so a move made shortly after the previous only takes 2 bytes.
+ * @author GOD
+ */
+public final class Replay
+{
+    /**
+     * The bytes at the start of every replay so we know the data is valid
+     */
+    private static final byte[] MAGIC = {'S', 'K', 'R'};
+    
+    /**
+     * The version of the binary format
+     */
+    private static final byte VERSION = 1;
+    
+    /**
+     * The prefix of the file name for a saved replay
+     */
+    private static final String FILE_PREFIX = "Replay_";
+    
+    //the recorded moves (same format as the journal)
+    private final byte[] moves;
+    
+    //the frame each move was made on
+    private final int[] frames;
+    
+    //the number of moves
+    private final int count;
+    
+    /**
+     * Create a new replay
+     * @param moves The recorded moves
+     * @param frames The frame each move was made on
+     * @param count The number of moves
+     */
+    protected Replay(final byte[] moves, final int[] frames, final int count)
+    {
+        this.moves = moves;
+        this.frames = frames;
+        this.count = count;
+    }
+    
+    /**
+     * Get the count
+     * @return The number of moves in the replay
+     */
+    public int getCount()
+    {
+        return this.count;
+    }
+    
+    /**
+     * Get the move
+     * @param index The position of the move
+     * @return The recorded move, use Journal.getDirection() and Journal.hasPush() to read it
+     */
+    public byte getMove(final int index)
+    {
+        return this.moves[index];
+    }
+    
+    /**
+     * Get the frame
+     * @param index The position of the move
+     * @return The frame the move was made on
+     */
+    public int getFrame(final int index)
+    {
+        return this.frames[index];
+    }
+    
+    /**
+     * Get the binary data for this replay
+     * @return The compact binary we can save or share
+     */
+    public byte[] toBytes()
+    {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(MAGIC.length + 6 + (count * 2));
+        
+        //write the header
+        out.write(MAGIC, 0, MAGIC.length);
+        out.write(VERSION);
+        writeNumber(out, count);
+        
+        //the frame of the previous move
+        int previous = 0;
+        
+        //write each move and the frames since the previous move
+        for (int index = 0; index < count; index++)
+        {
+            out.write(moves[index]);
+            writeNumber(out, frames[index] - previous);
+            previous = frames[index];
+        }
+        
+        return out.toByteArray();
+    }
+    
+    /**
+     * Create a replay from the binary data
+     * @param data The binary data created by toBytes()
+     * @return The replay
+     * @throws Exception If the data is not a valid replay
+     */
+    public static Replay fromBytes(final byte[] data) throws Exception
+    {
+        //make sure this is a replay we can read
+        if (data.length < MAGIC.length + 2)
+            throw new Exception("Replay data is too short: " + data.length);
+        
+        for (int index = 0; index < MAGIC.length; index++)
+        {
+            if (data[index] != MAGIC[index])
+                throw new Exception("Replay data is not valid");
+        }
+        
+        if (data[MAGIC.length] != VERSION)
+            throw new Exception("Replay version not supported: " + data[MAGIC.length]);
+        
+        //the position in the data
+        final int[] position = {MAGIC.length + 1};
+        
+        //the number of moves
+        final int count = readNumber(data, position);
+        
+        final byte[] moves = new byte[count];
+        final int[] frames = new int[count];
+        
+        //the frame of the previous move
+        int previous = 0;
+        
+        for (int index = 0; index < count; index++)
+        {
+            if (position[0] >= data.length)
+                throw new Exception("Replay data ended early at move " + index);
+            
+            moves[index] = data[position[0]++];
+            frames[index] = previous + readNumber(data, position);
+            previous = frames[index];
+        }
+        
+        return new Replay(moves, frames, count);
+    }
+    
+    /**
+     * Write the number 7 bits at a time, the high bit is set when more bytes follow
+     * @param out Where we are writing
+     * @param number The number we want to write, can't be negative
+     */
+    private static void writeNumber(final ByteArrayOutputStream out, int number)
+    {
+        while ((number & ~0x7F) != 0)
+        {
+            out.write((number & 0x7F) | 0x80);
+            number >>>= 7;
+        }
+        
+        out.write(number);
+    }
+    
+    /**
+     * Read a number written by writeNumber()
+     * @param data The binary data
+     * @param position The position to read from, will be updated to after the number
+     * @return The number
+     * @throws Exception If the data ends before the number does
+     */
+    private static int readNumber(final byte[] data, final int[] position) throws Exception
+    {
+        int number = 0;
+        
+        for (int shift = 0; shift < 32; shift += 7)
+        {
+            if (position[0] >= data.length)
+                throw new Exception("Replay data ended early");
+            
+            final int value = data[position[0]++];
+            number |= (value & 0x7F) << shift;
+            
+            //if the high bit isn't set, this is the last byte
+            if ((value & 0x80) == 0)
+                return number;
+        }
+        
+        throw new Exception("Replay number is too large");
+    }
+    
+    /**
+     * Get the file name
+     * @param desc The unique description of the level pack
+     * @param levelIndex The level the replay is for
+     * @return The file name used to save the replay in the internal storage
+     */
+    private static String getFileName(final String desc, final int levelIndex)
+    {
+        return FILE_PREFIX + desc + "_" + levelIndex;
+    }
+    
+    /**
+     * Save the replay to the internal storage, replacing an existing replay for the level
+     * @param activity Our activity object
+     * @param desc The unique description of the level pack
+     * @param levelIndex The level the replay is for
+     */
+    public void save(final Activity activity, final String desc, final int levelIndex)
+    {
+        FileOutputStream out = null;
+        
+        try
+        {
+            out = activity.openFileOutput(getFileName(desc, levelIndex), Context.MODE_PRIVATE);
+            out.write(toBytes());
+        }
+        catch (Exception e)
+        {
+            e.printStackTrace();
+        }
+        finally
+        {
+            try
+            {
+                if (out != null)
+                    out.close();
+            }
+            catch (Exception e)
+            {
+                e.printStackTrace();
+            }
+        }
+    }
+    
+    /**
+     * Load the replay from the internal storage
+     * @param activity Our activity object
+     * @param desc The unique description of the level pack
+     * @param levelIndex The level the replay is for
+     * @return The replay saved for the level, null if none exists or it could not be read
+     */
+    public static Replay load(final Activity activity, final String desc, final int levelIndex)
+    {
+        FileInputStream in = null;
+        
+        try
+        {
+            in = activity.openFileInput(getFileName(desc, levelIndex));
+            
+            //read all the data
+            final ByteArrayOutputStream data = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[1024];
+            
+            for (int length = in.read(buffer); length > 0; length = in.read(buffer))
+            {
+                data.write(buffer, 0, length);
+            }
+            
+            return fromBytes(data.toByteArray());
+        }
+        catch (FileNotFoundException e)
+        {
+            //no replay has been saved
+            return null;
+        }
+        catch (Exception e)
+        {
+            e.printStackTrace();
+            return null;
+        }
+        finally
+        {
+            try
+            {
+                if (in != null)
+                    in.close();
+            }
+            catch (Exception e)
+            {
+                e.printStackTrace();
+            }
+        }
+    }
+}
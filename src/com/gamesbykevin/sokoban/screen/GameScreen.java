@@ -1,6 +1,7 @@
 package com.gamesbykevin.sokoban.screen;
 
 import android.graphics.Canvas;
+import android.graphics.Rect;
 import com.gamesbykevin.androidframework.resources.Disposable;
 import com.gamesbykevin.androidframework.screen.Screen;
 import com.gamesbykevin.sokoban.assets.Assets;
@@ -41,6 +42,43 @@ public class GameScreen implements Screen, Disposable
         getGame().reset(Assets.TextKey.values()[screen.getScreenOptions().getIndex(OptionsScreen.ButtonKey.Difficulty)]);
     }
     
+    /**
+     * Pause the level in play (if any), it will continue when the game is updated again
+     */
+    public void pause()
+    {
+        if (getGame() != null)
+            getGame().pause();
+    }
+    
+    /**
+     * Save the progress of the level in play (if any)
+     */
+    public void save()
+    {
+        if (getGame() != null)
+            getGame().save();
+    }
+    
+    /**
+     * Is the game idle?
+     * @return true if nothing will change until the user interacts, false otherwise
+     */
+    public boolean isIdle()
+    {
+        return (getGame() != null && getGame().isIdle());
+    }
+    
+    /**
+     * Get the area of the game that changed since the previous frame
+     * @param dirty The area that needs to be rendered again
+     * @return true if only the dirty area needs to be rendered, false if everything needs to be rendered
+     */
+    public boolean getDirty(final Rect dirty)
+    {
+        return (getGame() != null && getGame().getDirty(dirty));
+    }
+    
     /**
      * Reset any necessary screen elements here
      */
@@ -52,6 +52,11 @@ public class GameoverScreen implements Screen, Disposable
      */
     private static final String BUTTON_TEXT_REPLAY = "Retry";
     
+    /**
+     * The text to display to watch the best run
+     */
+    private static final String BUTTON_TEXT_WATCH = "Watch Best";
+    
     /**
      * The text to display for level select
      */
@@ -71,6 +76,7 @@ public class GameoverScreen implements Screen, Disposable
     public static final int INDEX_BUTTON_MENU = 2;
     public static final int INDEX_BUTTON_RATE = 3;
     public static final int INDEX_BUTTON_LEVEL_SELECT = 4;
+    public static final int INDEX_BUTTON_WATCH = 5;
     
     public GameoverScreen(final ScreenManager screen)
     {
@@ -90,6 +96,9 @@ public class GameoverScreen implements Screen, Disposable
         y += ScreenManager.BUTTON_Y_INCREMENT;
         addButton(x, y, INDEX_BUTTON_REPLAY, BUTTON_TEXT_REPLAY);
         
+        y += ScreenManager.BUTTON_Y_INCREMENT;
+        addButton(x, y, INDEX_BUTTON_WATCH, BUTTON_TEXT_WATCH);
+        
         y += ScreenManager.BUTTON_Y_INCREMENT;
         addButton(x, y, INDEX_BUTTON_LEVEL_SELECT, BUTTON_TEXT_LEVEL_SELECT);
         
@@ -254,6 +263,18 @@ public class GameoverScreen implements Screen, Disposable
 	                    //play sound effect
 	                    Audio.play(Assets.AudioMenuKey.Selection);
 	                    
+	                    //we don't request additional motion events
+	                    return false;
+	        			
+	        		case INDEX_BUTTON_WATCH:
+	                    
+	                    //play sound effect
+	                    Audio.play(Assets.AudioMenuKey.Selection);
+	                    
+	                    //watch the best run for the level, if one was saved
+	                    if (screen.getScreenGame().getGame().watch())
+	                    	screen.setState(ScreenManager.State.Running);
+	                    
 	                    //we don't request additional motion events
 	                    return false;
 	        			
@@ -13,6 +13,7 @@ import com.gamesbykevin.sokoban.MainActivity;
 import com.gamesbykevin.sokoban.screen.ScreenManager;
 import com.gamesbykevin.sokoban.screen.MenuScreen;
 import com.gamesbykevin.sokoban.storage.settings.Settings;
+import com.gamesbykevin.sokoban.player.Speed;
 import com.gamesbykevin.sokoban.assets.Assets;
 
 import java.util.HashMap;
@@ -38,7 +39,7 @@ public class OptionsScreen implements Screen, Disposable
     //Different buttons on the screen
     public enum ButtonKey
     {
-    	Back, Sound, Vibrate, Difficulty, Instructions, Twitter, Facebook, Youtube
+    	Back, Sound, Vibrate, Difficulty, Instructions, Twitter, Facebook, Youtube, Speed
     }
     
     public OptionsScreen(final ScreenManager screen)
@@ -67,6 +68,10 @@ public class OptionsScreen implements Screen, Disposable
         y += ScreenManager.BUTTON_Y_INCREMENT;
         addButtonDifficulty(x, y);
         
+        //add speed option
+        y += ScreenManager.BUTTON_Y_INCREMENT;
+        addButtonSpeed(x, y);
+        
         //the back button
         y += ScreenManager.BUTTON_Y_INCREMENT;
         addButtonBack(x, y);
@@ -154,6 +159,20 @@ public class OptionsScreen implements Screen, Disposable
         this.buttons.put(ButtonKey.Difficulty, button);
     }
     
+    private void addButtonSpeed(final int x, final int y)
+    {
+        Button button = new Button(Images.getImage(Assets.ImageMenuKey.Button));
+        
+        for (Speed speed : Speed.values())
+        {
+            button.addDescription("Speed: " + speed.getDesc());
+        }
+        
+        button.setX(x);
+        button.setY(y);
+        this.buttons.put(ButtonKey.Speed, button);
+    }
+    
     private void addButtonBack(final int x, final int y)
     {
         Button button = new Button(Images.getImage(Assets.ImageMenuKey.Button));
@@ -223,6 +242,7 @@ public class OptionsScreen implements Screen, Disposable
 						case Back:
 						case Sound:
 						case Difficulty:
+						case Speed:
 						case Vibrate:
 							button.positionText(screen.getPaint());
 							break;
@@ -338,6 +358,28 @@ public class OptionsScreen implements Screen, Disposable
                         //play sound effect
                         Audio.play(Assets.AudioMenuKey.Selection);
                         
+                        //no need to continue
+    					return false;
+    					
+    				case Speed:
+    					
+    					//change index
+    					button.setIndex(button.getIndex() + 1);
+    					
+    					//position the text
+    			        button.positionText(screen.getPaint());
+    			        
+                        //we also want to update the player so the new speed is used right away
+                        if (screen.getScreenGame() != null && screen.getScreenGame().getGame() != null)
+                        {
+                        	//make sure the player exists
+                    		if (screen.getScreenGame().getGame().getPlayer() != null)
+                    			screen.getScreenGame().getGame().getPlayer().setSpeed(Speed.values()[button.getIndex()]);
+                        }
+    					
+                        //play sound effect
+                        Audio.play(Assets.AudioMenuKey.Selection);
+                        
                         //no need to continue
     					return false;
                         
@@ -417,6 +459,7 @@ public class OptionsScreen implements Screen, Disposable
 	    			case Back:
 	    			case Sound:
 	    			case Difficulty:
+	    			case Speed:
 	    			case Vibrate:
 	    				buttons.get(key).render(canvas, screen.getPaint());
 	    				break;
@@ -3,6 +3,7 @@ package com.gamesbykevin.sokoban.screen;
 import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.Paint;
+import android.graphics.Rect;
 import com.gamesbykevin.androidframework.anim.Animation;
 import com.gamesbykevin.androidframework.base.Entity;
 import com.gamesbykevin.androidframework.resources.Audio;
@@ -36,6 +37,9 @@ public final class ScreenManager implements Screen, Disposable
     //the current state of the game
     private State state = State.Ready;
     
+    //the state at the previous frame, if the state changes everything is rendered
+    private State stateDirty;
+    
     //our game panel
     private final GamePanel panel;
     
@@ -160,6 +164,35 @@ public final class ScreenManager implements Screen, Disposable
         getScreen(getState()).update();
     }
     
+    /**
+     * Is the current screen idle?<br>
+     * Only the game screen is checked, the other screens will continue to render
+     * @return true if nothing will change until the user interacts, false otherwise
+     */
+    public boolean isIdle()
+    {
+        return (getState() == State.Running && getScreenGame() != null && getScreenGame().isIdle());
+    }
+    
+    /**
+     * Get the area that changed since the previous frame.<br>
+     * Only the game screen can be partially rendered, the other screens are always rendered completely
+     * @param dirty The area that needs to be rendered again
+     * @return true if only the dirty area needs to be rendered, false if everything needs to be rendered
+     */
+    public boolean getDirty(final Rect dirty)
+    {
+        //did the state change since the previous frame
+        final boolean changed = (getState() != stateDirty);
+        this.stateDirty = getState();
+        
+        if (getState() != State.Running || getScreenGame() == null)
+            return false;
+        
+        //the game always tracks the area, even if everything is rendered
+        return (getScreenGame().getDirty(dirty) && !changed);
+    }
+    
     /**
      * Get the game panel
      * @return Our game panel object reference
@@ -217,6 +250,10 @@ public final class ScreenManager implements Screen, Disposable
             getScreen(state).reset();
         }
         
+        //if we are leaving the game, stop counting the time
+        if (state != State.Running && getScreenGame() != null)
+            getScreenGame().pause();
+        
         //if we are not in running, but we will now be
         if (getState() != State.Running && state == State.Running)
         {
@@ -0,0 +1,293 @@
+package com.gamesbykevin.sokoban.storage.progress;
+
+import android.app.Activity;
+import android.content.Context;
+
+import com.gamesbykevin.sokoban.assets.Assets;
+import com.gamesbykevin.sokoban.level.Level;
+import com.gamesbykevin.sokoban.player.Journal;
+import com.gamesbykevin.sokoban.player.Player;
+import com.gamesbykevin.sokoban.replay.Replay;
+import com.gamesbykevin.sokoban.thread.MainThread;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+
+/**
+ * The progress of a level that has not been completed, saved to the internal storage.<br>
+ * The location of the player and blocks, the journal, the timer and moves are written as a compact binary,<br>
+ * so the player can leave the game and continue where they left off.
+ * @author GOD
+ */
+public final class Progress
+{
+    /**
+     * The name of the file in the internal storage
+     */
+    private static final String FILE_NAME = "Progress";
+    
+    /**
+     * The bytes at the start of the file so we know the data is valid
+     */
+    private static final int MAGIC = 0x534B5002;
+    
+    //the level pack and level the progress is for
+    private final Assets.TextKey key;
+    private final int levelIndex;
+    
+    //the hash of the level the progress is for, so a level that changed isn't restored
+    private final int hash;
+    
+    //the size of the level
+    private final int cols, rows;
+    
+    //the cell of the player and each block
+    private final int player;
+    private final int[] blocks;
+    
+    //the number of moves, time (milliseconds) and updates
+    private final int moves;
+    private final long time;
+    private final int frames;
+    
+    //the recorded moves in the journal, and how many are applied
+    private final byte[] journal;
+    private final int journalIndex;
+    
+    //the recording of the moves made for the replay
+    private final byte[] replay;
+    
+    /**
+     * Read the progress from the binary data
+     * @param in The binary data
+     * @throws Exception If the data is not valid
+     */
+    private Progress(final DataInputStream in) throws Exception
+    {
+        if (in.readInt() != MAGIC)
+            throw new Exception("Progress data is not valid");
+        
+        this.key = Assets.TextKey.valueOf(in.readUTF());
+        this.levelIndex = in.readInt();
+        this.hash = in.readInt();
+        this.cols = in.readShort();
+        this.rows = in.readShort();
+        this.player = in.readInt();
+        this.blocks = new int[in.readShort()];
+        
+        for (int index = 0; index < blocks.length; index++)
+        {
+            blocks[index] = in.readInt();
+        }
+        
+        this.moves = in.readInt();
+        this.time = in.readLong();
+        this.frames = in.readInt();
+        this.journal = new byte[in.readInt()];
+        this.journalIndex = in.readInt();
+        in.readFully(journal);
+        this.replay = new byte[in.readInt()];
+        in.readFully(replay);
+    }
+    
+    /**
+     * Get the key
+     * @return The level pack the progress is for
+     */
+    public Assets.TextKey getKey()
+    {
+        return this.key;
+    }
+    
+    /**
+     * Get the level index
+     * @return The level the progress is for
+     */
+    public int getLevelIndex()
+    {
+        return this.levelIndex;
+    }
+    
+    /**
+     * Restore the progress to the level and player.<br>
+     * The level and player need to be reset to the start of the level first.
+     * @param hash The hash of the level (see LevelInfo)
+     * @param level The level the progress is for
+     * @param player The player
+     * @return true if the progress was restored, false if it does not match the level
+     * @throws Exception If the saved replay can't be read
+     */
+    public boolean restore(final int hash, final Level level, final Player player) throws Exception
+    {
+        //make sure the progress is for this level, the level pack may have changed since it was saved
+        if (this.hash != hash || level.getCols() != cols || level.getRows() != rows || level.getCurrent().size() != blocks.length)
+            return false;
+        
+        //place each block
+        for (int index = 0; index < blocks.length; index++)
+        {
+            level.restoreBlock(level.getCurrent().get(index), blocks[index] % cols, blocks[index] / cols);
+        }
+        
+        //place the player
+        player.setCol(this.player % cols);
+        player.setRow(this.player / cols);
+        player.setTarget(player.getCol(), player.getRow());
+        
+        //restore the moves, time and recordings
+        player.setMoves(moves);
+        player.setTime(time);
+        player.setFrames(frames);
+        player.getJournal().restore(journal, journal.length, journalIndex);
+        player.getRecorder().restore(Replay.fromBytes(replay));
+        player.updateRenderCoordinates(level);
+        
+        //the progress was restored
+        return true;
+    }
+    
+    /**
+     * Save the progress of the current level to the internal storage
+     * @param activity Our activity object
+     * @param key The level pack
+     * @param levelIndex The level in play
+     * @param hash The hash of the level in play (see LevelInfo)
+     * @param level The level in play
+     * @param player The player
+     */
+    public static void save(final Activity activity, final Assets.TextKey key, final int levelIndex, final int hash, final Level level, final Player player)
+    {
+        final long time = System.nanoTime();
+        
+        FileOutputStream file = null;
+        
+        try
+        {
+            final int cols = level.getCols();
+            final Journal journal = player.getJournal();
+            final byte[] replay = player.getRecorder().getReplay().toBytes();
+            
+            //write everything to memory first, so the file is written all at once
+            final ByteArrayOutputStream data = new ByteArrayOutputStream(64 + (level.getCurrent().size() * 4) + journal.getTotal() + replay.length);
+            final DataOutputStream out = new DataOutputStream(data);
+            
+            out.writeInt(MAGIC);
+            out.writeUTF(key.name());
+            out.writeInt(levelIndex);
+            out.writeInt(hash);
+            out.writeShort(cols);
+            out.writeShort(level.getRows());
+            
+            //the player's logical location is the target, in case they are moving
+            out.writeInt(((int)player.getTarget().getRow() * cols) + (int)player.getTarget().getCol());
+            
+            //the logical location of each block is the destination, in case it is moving
+            out.writeShort(level.getCurrent().size());
+            
+            for (int index = 0; index < level.getCurrent().size(); index++)
+            {
+                out.writeInt(((int)level.getCurrent().get(index).getDestination().getRow() * cols) + (int)level.getCurrent().get(index).getDestination().getCol());
+            }
+            
+            out.writeInt(player.getMoves());
+            out.writeLong(player.getTime());
+            out.writeInt(player.getFrames());
+            
+            out.writeInt(journal.getTotal());
+            out.writeInt(journal.getSize());
+            
+            for (int index = 0; index < journal.getTotal(); index++)
+            {
+                out.writeByte(journal.getMove(index));
+            }
+            
+            out.writeInt(replay.length);
+            out.write(replay);
+            out.flush();
+            
+            file = activity.openFileOutput(FILE_NAME, Context.MODE_PRIVATE);
+            data.writeTo(file);
+        }
+        catch (Exception e)
+        {
+            e.printStackTrace();
+        }
+        finally
+        {
+            try
+            {
+                if (file != null)
+                    file.close();
+            }
+            catch (Exception e)
+            {
+                e.printStackTrace();
+            }
+        }
+        
+        if (MainThread.DEBUG)
+            System.out.println("Progress saved, Time (ns)=" + (System.nanoTime() - time));
+    }
+    
+    /**
+     * Load the progress from the internal storage
+     * @param activity Our activity object
+     * @return The progress saved, null if none exists or it could not be read
+     */
+    public static Progress load(final Activity activity)
+    {
+        FileInputStream file = null;
+        
+        try
+        {
+            file = activity.openFileInput(FILE_NAME);
+            
+            //read all the data
+            final ByteArrayOutputStream data = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[1024];
+            
+            for (int length = file.read(buffer); length > 0; length = file.read(buffer))
+            {
+                data.write(buffer, 0, length);
+            }
+            
+            return new Progress(new DataInputStream(new ByteArrayInputStream(data.toByteArray())));
+        }
+        catch (FileNotFoundException e)
+        {
+            //no progress has been saved
+            return null;
+        }
+        catch (Exception e)
+        {
+            e.printStackTrace();
+            return null;
+        }
+        finally
+        {
+            try
+            {
+                if (file != null)
+                    file.close();
+            }
+            catch (Exception e)
+            {
+                e.printStackTrace();
+            }
+        }
+    }
+    
+    /**
+     * Remove the progress from the internal storage
+     * @param activity Our activity object
+     */
+    public static void delete(final Activity activity)
+    {
+        activity.deleteFile(FILE_NAME);
+    }
+}
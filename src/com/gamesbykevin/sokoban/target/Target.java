@@ -16,7 +16,7 @@ public class Target extends Cell implements Disposable
     //is this target at a goal
     private boolean goal = false;
     
-    //store the previous location in case we want to undo
+    //the location at the previous update, used to render in between updates
     private double previousCol, previousRow;
     
     /**
@@ -31,9 +31,71 @@ public class Target extends Cell implements Disposable
         //assign current location as the destination
         this.destination = new Cell(col, row);
         
-        //assign the previous location
-        this.previousCol = col;
-        this.previousRow = row;
+        //there is no previous location yet
+        setPrevious();
+    }
+    
+    /**
+     * Store the current location as the previous location, called before each update
+     */
+    public final void setPrevious()
+    {
+        this.previousCol = getCol();
+        this.previousRow = getRow();
+    }
+    
+    /**
+     * Get the previous column
+     * @return The column at the previous update
+     */
+    public double getPreviousCol()
+    {
+        return this.previousCol;
+    }
+    
+    /**
+     * Get the previous row
+     * @return The row at the previous update
+     */
+    public double getPreviousRow()
+    {
+        return this.previousRow;
+    }
+    
+    /**
+     * Get the column to render
+     * @param interpolation How far we are between the previous update and the next (0 - 1)
+     * @return The column between the previous and current location
+     */
+    public double getRenderCol(final float interpolation)
+    {
+        return interpolate(previousCol, getCol(), interpolation);
+    }
+    
+    /**
+     * Get the row to render
+     * @param interpolation How far we are between the previous update and the next (0 - 1)
+     * @return The row between the previous and current location
+     */
+    public double getRenderRow(final float interpolation)
+    {
+        return interpolate(previousRow, getRow(), interpolation);
+    }
+    
+    /**
+     * Get the location between the previous and current location.<br>
+     * If the location changed by more than 1 cell it was placed (undo, restore, etc...), so we won't move between them
+     * @param previous The location at the previous update
+     * @param current The current location
+     * @param interpolation How far we are between the previous update and the next (0 - 1)
+     * @return The location to render
+     */
+    public static double interpolate(final double previous, final double current, final float interpolation)
+    {
+        if (Math.abs(current - previous) > 1)
+            return current;
+        
+        return previous + ((current - previous) * interpolation);
     }
     
     @Override
@@ -61,27 +123,12 @@ public class Target extends Cell implements Disposable
     }
     
     /**
-     * Reset the location to the previous
-     */
-    public void undo()
-    {
-    	setCol(this.previousCol);
-    	setRow(this.previousRow);
-    	
-    	setDestination(getCol(), getRow());
-    }
-    
-    /**
-     * Assign the destination, as well as the current location
+     * Assign the destination
      * @param col Column of our destination
      * @param row Row of our destination
      */
     public void setDestination(final double col, final double row)
     {
-    	//assign current in case of undo
-    	this.previousCol = getCol();
-    	this.previousRow = getRow();
-    	    	
         //assign destination location
         this.destination.setCol(col);
         this.destination.setRow(row);
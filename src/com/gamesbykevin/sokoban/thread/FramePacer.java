@@ -0,0 +1,24 @@
+package com.gamesbykevin.sokoban.thread;
+
+import com.gamesbykevin.androidframework.resources.Disposable;
+
+/**
+ * A frame pacer decides when the main thread starts the next frame.<br>
+ * The main thread gets the time from the pacer, so the time always agrees with how the pacer waits.
+ * @author GOD
+ */
+public interface FramePacer extends Disposable
+{
+    /**
+     * Get the time
+     * @return The current time (nanoseconds), only the difference between 2 times is meaningful
+     */
+    public long getTime();
+    
+    /**
+     * Wait until the next frame should start
+     * @param waitTime The time until the next frame is due, according to the main thread (nanoseconds)
+     * @throws InterruptedException If the thread was interrupted while waiting
+     */
+    public void waitForFrame(final long waitTime) throws InterruptedException;
+}
@@ -0,0 +1,110 @@
+package com.gamesbykevin.sokoban.thread;
+
+import com.gamesbykevin.androidframework.anim.Animation;
+
+/**
+ * Frame time instrumentation.<br>
+ * The time between each frame is tracked so we can measure how steady the frames are
+ * @author GOD
+ */
+public final class FrameStats
+{
+    //the time between each frame (nanoseconds)
+    private final long[] times;
+    
+    //the number of frame times tracked
+    private int count = 0;
+    
+    //the time of the previous frame, 0 if there isn't one
+    private long previous = 0;
+    
+    /**
+     * Create new frame stats
+     * @param size The number of frame times we track before the stats are ready
+     */
+    public FrameStats(final int size)
+    {
+        this.times = new long[size];
+    }
+    
+    /**
+     * Record the start of a frame
+     * @param time The time the frame started (nanoseconds)
+     */
+    public void record(final long time)
+    {
+        //track the time since the previous frame, if there is room
+        if (previous != 0 && !isReady())
+            times[count++] = time - previous;
+        
+        previous = time;
+    }
+    
+    /**
+     * Are the stats ready?
+     * @return true if we tracked enough frame times, false otherwise
+     */
+    public boolean isReady()
+    {
+        return (count >= times.length);
+    }
+    
+    /**
+     * Start tracking a new set of frame times, the previous frame is kept
+     */
+    public void reset()
+    {
+        this.count = 0;
+    }
+    
+    /**
+     * Get the average
+     * @return The average time between frames (milliseconds)
+     */
+    public double getAverage()
+    {
+        if (count == 0)
+            return 0;
+        
+        double total = 0;
+        
+        for (int index = 0; index < count; index++)
+        {
+            total += times[index];
+        }
+        
+        return (total / count) / Animation.NANO_SECONDS_PER_MILLISECOND;
+    }
+    
+    /**
+     * Get the variance
+     * @return The variance of the time between frames (milliseconds squared)
+     */
+    public double getVariance()
+    {
+        if (count == 0)
+            return 0;
+        
+        final double average = getAverage();
+        double total = 0;
+        
+        for (int index = 0; index < count; index++)
+        {
+            final double difference = ((double)times[index] / Animation.NANO_SECONDS_PER_MILLISECOND) - average;
+            total += difference * difference;
+        }
+        
+        return (total / count);
+    }
+    
+    /**
+     * Get the frames per second
+     * @return The average number of frames per second
+     */
+    public double getFps()
+    {
+        final double average = getAverage();
+        
+        return (average > 0) ? Animation.MILLISECONDS_PER_SECOND / average : 0;
+    }
+}
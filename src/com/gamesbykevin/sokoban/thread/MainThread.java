@@ -1,6 +1,8 @@
 package com.gamesbykevin.sokoban.thread;
 
 import android.graphics.Canvas;
+import android.graphics.Rect;
+import android.os.Build;
 import android.view.SurfaceHolder;
 import com.gamesbykevin.androidframework.anim.Animation;
 
@@ -17,9 +19,46 @@ public class MainThread extends Thread
      */
     public static final boolean DEBUG = true;
     
-    //the assigned frames per second for this game
+    //the assigned updates per second for this game, the game always moves at this rate
     public static final int FPS = 30;
     
+    //the number of times we want to render per second, the positions in between updates are interpolated
+    public static final int RENDER_FPS = 60;
+    
+    /**
+     * The most updates we will make to catch up before rendering, any time beyond is dropped
+     */
+    private static final int MAX_UPDATES = 5;
+    
+    /**
+     * Do we want to pace the frames with the display refresh (if available)
+     */
+    public static final boolean VSYNC = true;
+    
+    /**
+     * Do we want to render only the area that changed (when possible)
+     */
+    public static final boolean PARTIAL = true;
+    
+    /**
+     * Do we want to stop rendering when nothing is changing
+     */
+    public static final boolean IDLE = true;
+    
+    /**
+     * The longest time to rest when idle (milliseconds), so the timer displayed still changes
+     */
+    private static final long IDLE_SLEEP = 1000;
+    
+    //object used to rest when idle, until we are woken
+    private final Object monitor = new Object();
+    
+    //were we woken since the last time we rested
+    private boolean awake = false;
+    
+    //decides when each frame starts
+    private FramePacer pacer;
+    
     //our game panel
     private final GamePanel panel;
     
@@ -56,19 +95,56 @@ public class MainThread extends Thread
         
         //assign game panel reference object
         this.panel = panel;
+        
+        //use the display refresh if we can, else sleep between frames
+        if (VSYNC && Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN)
+        {
+        	setPacer(new VsyncPacer());
+        }
+        else
+        {
+        	setPacer(new SleepPacer());
+        }
+    }
+    
+    /**
+     * Assign the pacer, any previous pacer is disposed
+     * @param pacer The object that decides when each frame starts
+     */
+    public final void setPacer(final FramePacer pacer)
+    {
+    	if (this.pacer != null)
+    		this.pacer.dispose();
+    	
+    	this.pacer = pacer;
+    }
+    
+    /**
+     * Get the pacer
+     * @return The object that decides when each frame starts
+     */
+    private FramePacer getPacer()
+    {
+    	return this.pacer;
     }
     
     @Override
     public void run()
     {
-        //track total time elapsed to calculate fps
-        long totalTime = 0;
+        //track the time between frames to calculate the fps
+        final FrameStats stats = new FrameStats(RENDER_FPS);
+        
+        //the time of each update, the game always moves forward by this amount (nanoseconds)
+        final long targetTime = (Animation.NANO_SECONDS_PER_MILLISECOND * Animation.MILLISECONDS_PER_SECOND) / FPS;
         
-        //the frame count
-        int frames = 0;
+        //the time of each render, we can render more often than we update (nanoseconds)
+        final long renderTime = (Animation.NANO_SECONDS_PER_MILLISECOND * Animation.MILLISECONDS_PER_SECOND) / RENDER_FPS;
         
-        //the expected amount of time per each update
-        final long targetTime = (Animation.MILLISECONDS_PER_SECOND / FPS);
+        //the time that has passed and not been updated yet, start with 1 update so the game is created before rendering
+        long lag = targetTime;
+        
+        //the time of the previous loop
+        long previousTime = getPacer().getTime();
         
         try
         {
@@ -81,27 +157,65 @@ public class MainThread extends Thread
             		//sleep for a default time
             		sleep(DEFAULT_SLEEP);
             		
+            		//the time paused is not counted
+            		previousTime = getPacer().getTime();
+            		
             		//we are paused so we can't continue
             		continue;
             	}
             	
                 //get the start time of this update
-                final long startTime = System.nanoTime();
-
+                final long startTime = getPacer().getTime();
+                
+                //track the frame time
+                if (DEBUG)
+                	stats.record(startTime);
+                
+                //add the time passed since the previous loop
+                lag += startTime - previousTime;
+                previousTime = startTime;
+                
+                //if we fell too far behind, we won't try to catch up all the way so the game doesn't freeze
+                if (lag > targetTime * MAX_UPDATES)
+                	lag = targetTime * MAX_UPDATES;
+                
+                //was nothing changing before this frame
+                final boolean idle = IDLE && getPanel().isIdle();
+                
+                //make sure there is at least 1 update so the game is current when we wake
+                if (idle && lag < targetTime)
+                	lag = targetTime;
+                
+                //is nothing changing after the updates of this frame
+                boolean resting = false;
+                
                 //assign the canvas null
                 setCanvas(null);
 
                 try 
                 {
-                    //attempt to lock the canvas to edit the pixels of the surface
-                	setCanvas(getHolder().lockCanvas());
-
                     //make sure no other threads are accessing the holder
                     synchronized (getHolder())
                     {
-                        //update our game panel
-                        getPanel().update();
-
+                        //update our game panel at a constant rate, as many times as needed to catch up
+                        while (lag >= targetTime)
+                        {
+                        	getPanel().update();
+                        	lag -= targetTime;
+                        }
+                        
+                        //once nothing is changing, render where everything ended up so we can rest without rendering another frame
+                        resting = IDLE && getPanel().isIdle();
+                        
+                        //how far we are between the previous update and the next
+                        getPanel().setInterpolation((resting) ? 1 : (float)lag / targetTime);
+                        
+                        //the area that changed, null if everything needs to be rendered
+                        final Rect dirty = (PARTIAL) ? getPanel().getDirty() : null;
+                        
+                        //attempt to lock the canvas to edit the pixels of the surface, the canvas is clipped to the dirty area
+                    	setCanvas((dirty != null) ? getHolder().lockCanvas(dirty) : getHolder().lockCanvas());
+                        
                         //if the canvas object was obtained and we did not pause, render
                         if (getCanvas() != null && !isPaused())
                             getPanel().draw(getCanvas());
@@ -128,48 +242,36 @@ public class MainThread extends Thread
                     }
                 }
 
-                //calculate the number of milliseconds elapsed
-                final long timeMillis = (System.nanoTime() - startTime) / Animation.NANO_SECONDS_PER_MILLISECOND;
-
-                //determine the amount of time to sleep
-                long waitTime = targetTime - timeMillis;
+                //calculate the time elapsed
+                final long elapsed = getPacer().getTime() - startTime;
 
-                //make sure the wait time is at least 1 millisecond
-                if (waitTime < 1)
-                    waitTime = 1;
-                
                 try
                 {
-                    //sleep the thread
-                    sleep(waitTime);
+                	//if nothing is changing, this frame already shows where everything ended up, so rest until woken
+                	if (resting && getPanel().isIdle())
+                	{
+                		rest();
+                		
+                		//the time resting is not counted, we will update once when we wake
+                		previousTime = getPacer().getTime();
+                		lag = targetTime;
+                	}
+                	else
+                	{
+	                    //wait until the next render, any update that is due by then is made at the start of that frame
+	                    getPacer().waitForFrame(renderTime - elapsed);
+                	}
                 }
                 catch (Exception e)
                 {
                     e.printStackTrace();
                 }
 
-                //if we are debugging, print the fps
-                if (DEBUG)
+                //if we are debugging, print the fps and how steady the frames are
+                if (DEBUG && stats.isReady())
                 {
-                    //calculate the total time passed
-                    totalTime += System.nanoTime() - startTime;
-
-                    //increase the frame count
-                    frames++;
-
-                    //if the frame count = the assigned fps
-                    if (frames == FPS)
-                    {
-                        //calculate the average fps
-                        final double fpsAverage = (double)Animation.MILLISECONDS_PER_SECOND / ((double)(totalTime / frames) / Animation.NANO_SECONDS_PER_MILLISECOND);
-
-                        //reset these values
-                        frames = 0;
-                        totalTime = 0;
-
-                        //display the average
-                        System.out.println("Average FPS " + fpsAverage);
-                    }
+                    System.out.println("Average FPS " + stats.getFps() + ", Frame time variance (ms^2) " + stats.getVariance());
+                    stats.reset();
                 }
             }
         }
@@ -181,9 +283,40 @@ public class MainThread extends Thread
         {
 	        //stop thread
 	        this.setRunning(false);
+	        
+	        //stop pacing frames
+	        getPacer().dispose();
         }
     }
     
+    /**
+     * Rest until we are woken, or until the idle time has passed
+     * @throws InterruptedException
+     */
+    private void rest() throws InterruptedException
+    {
+    	synchronized (monitor)
+    	{
+    		//only rest if we weren't woken already
+    		if (!awake)
+    			monitor.wait(IDLE_SLEEP);
+    		
+    		this.awake = false;
+    	}
+    }
+    
+    /**
+     * Wake the thread if it is resting, so the next frame starts right away
+     */
+    public void wake()
+    {
+    	synchronized (monitor)
+    	{
+    		this.awake = true;
+    		monitor.notifyAll();
+    	}
+    }
+    
     /**
      * Set the pause flag.<br>
      * If we are pausing the game we will make sure the canvas is not locked
@@ -210,6 +343,10 @@ public class MainThread extends Thread
     public void setRunning(final boolean running)
     {
         this.running = running;
+        
+        //if resting, wake so the thread can stop right away
+        if (!running)
+        	wake();
     }
     
     /**
@@ -0,0 +1,38 @@
+package com.gamesbykevin.sokoban.thread;
+
+import com.gamesbykevin.androidframework.anim.Animation;
+
+/**
+ * Pace the frames by sleeping the thread until the next frame is due.<br>
+ * Available on every device, but the frames are not aligned with the display refresh
+ * @author GOD
+ */
+public final class SleepPacer implements FramePacer
+{
+    /**
+     * The least amount of time we will sleep (milliseconds)
+     */
+    private static final long MINIMUM_SLEEP = 1;
+    
+    @Override
+    public long getTime()
+    {
+        return System.nanoTime();
+    }
+    
+    @Override
+    public void waitForFrame(final long waitTime) throws InterruptedException
+    {
+        //make sure the wait time is at least 1 millisecond
+        final long time = Math.max(MINIMUM_SLEEP * Animation.NANO_SECONDS_PER_MILLISECOND, waitTime);
+        
+        //sleep the whole time, not only the whole milliseconds
+        Thread.sleep(time / Animation.NANO_SECONDS_PER_MILLISECOND, (int)(time % Animation.NANO_SECONDS_PER_MILLISECOND));
+    }
+    
+    @Override
+    public void dispose()
+    {
+        //nothing to clean up
+    }
+}
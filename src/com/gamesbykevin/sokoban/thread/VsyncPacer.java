@@ -0,0 +1,117 @@
+package com.gamesbykevin.sokoban.thread;
+
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.view.Choreographer;
+
+/**
+ * Pace the frames with the display refresh (vsync) using the Choreographer.<br>
+ * The Choreographer needs a looper, so the frame callbacks are received on a separate thread<br>
+ * and the main thread waits for the next callback. Only available on API 16 and above (the project targets android-16, minSdkVersion stays 15).
+ * @author GOD
+ */
+public final class VsyncPacer implements FramePacer, Choreographer.FrameCallback
+{
+    /**
+     * The longest we will wait for the display (milliseconds), in case the callbacks stop e.g. the screen is off
+     */
+    private static final long MAXIMUM_WAIT = 100;
+    
+    //the thread receiving the frame callbacks
+    private HandlerThread thread;
+    
+    //the choreographer, created on the callback thread
+    private Choreographer choreographer;
+    
+    //the number of frames the display has shown
+    private long frames = 0;
+    
+    //is the pacer still receiving callbacks
+    private boolean running = true;
+    
+    /**
+     * Create a new pacer and start receiving frame callbacks
+     */
+    public VsyncPacer()
+    {
+        //create the thread with a looper
+        this.thread = new HandlerThread("Vsync");
+        this.thread.start();
+        
+        //the choreographer has to be created and used on the thread with the looper
+        new Handler(thread.getLooper()).post(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                choreographer = Choreographer.getInstance();
+                choreographer.postFrameCallback(VsyncPacer.this);
+            }
+        });
+    }
+    
+    @Override
+    public void doFrame(final long frameTimeNanos)
+    {
+        synchronized (this)
+        {
+            //if disposed, don't request more callbacks
+            if (!running)
+                return;
+            
+            //another frame was shown, let the main thread continue
+            frames++;
+            notifyAll();
+        }
+        
+        //request the next frame
+        choreographer.postFrameCallback(this);
+    }
+    
+    @Override
+    public long getTime()
+    {
+        return System.nanoTime();
+    }
+    
+    @Override
+    public void waitForFrame(final long waitTime) throws InterruptedException
+    {
+        //if the next frame is already due we are behind, don't wait for the display
+        if (waitTime <= 0)
+            return;
+        
+        synchronized (this)
+        {
+            //wait for the next frame to be shown
+            final long current = frames;
+            
+            while (running && frames == current)
+            {
+                //if the display stops we won't wait forever
+                final long start = System.currentTimeMillis();
+                
+                wait(MAXIMUM_WAIT);
+                
+                if (System.currentTimeMillis() - start >= MAXIMUM_WAIT)
+                    break;
+            }
+        }
+    }
+    
+    @Override
+    public void dispose()
+    {
+        synchronized (this)
+        {
+            running = false;
+            notifyAll();
+        }
+        
+        if (thread != null)
+        {
+            thread.quit();
+            thread = null;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.gamesbykevin.sokoban.timer;
+
+import com.gamesbykevin.androidframework.anim.Animation;
+
+/**
+ * A timer that measures the actual time passed using System.nanoTime().<br>
+ * The time is correct no matter how many frames were rendered, and does not count while paused.
+ * @author GOD
+ */
+public final class Timer
+{
+    //the time counted before the timer was last started (nanoseconds)
+    private long elapsed = 0L;
+    
+    //when the timer was last started (nanoseconds)
+    private long start = 0L;
+    
+    //is the timer counting
+    private boolean running = false;
+    
+    /**
+     * Create a new timer that is not running
+     */
+    public Timer()
+    {
+        reset();
+    }
+    
+    /**
+     * Stop the timer and set the time back to 0
+     */
+    public void reset()
+    {
+        this.elapsed = 0L;
+        this.running = false;
+    }
+    
+    /**
+     * Start counting, if the timer was paused it will continue from the previous time
+     */
+    public void start()
+    {
+        if (isRunning())
+            return;
+        
+        this.start = System.nanoTime();
+        this.running = true;
+    }
+    
+    /**
+     * Stop counting, the time is kept until the timer is started again
+     */
+    public void pause()
+    {
+        if (!isRunning())
+            return;
+        
+        this.elapsed += System.nanoTime() - start;
+        this.running = false;
+    }
+    
+    /**
+     * Is the timer counting?
+     * @return true = yes, false = no
+     */
+    public boolean isRunning()
+    {
+        return this.running;
+    }
+    
+    /**
+     * Get the time
+     * @return The total time counted (milliseconds)
+     */
+    public long getTime()
+    {
+        //include the time since we started (if running)
+        final long time = (isRunning()) ? elapsed + (System.nanoTime() - start) : elapsed;
+        
+        return (time / Animation.NANO_SECONDS_PER_MILLISECOND);
+    }
+    
+    /**
+     * Set the time, used when restoring a previous time
+     * @param time The total time counted (milliseconds)
+     */
+    public void setTime(final long time)
+    {
+        this.elapsed = time * Animation.NANO_SECONDS_PER_MILLISECOND;
+        
+        //if running, count from now
+        if (isRunning())
+            this.start = System.nanoTime();
+    }
+}
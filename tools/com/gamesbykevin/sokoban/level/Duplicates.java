@@ -0,0 +1,109 @@
+package com.gamesbykevin.sokoban.level;
+
+import com.gamesbykevin.sokoban.assets.Assets;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Find the levels that are the same across every level pack, using the canonical hash of each level.<br>
+ * This is run when building and not by the game.<br>
+ * Usage: Duplicates [binary directory] [exact] e.g. Duplicates assets/binary, add exact to ignore rotated and mirrored levels
+ * @author GOD
+ */
+public final class Duplicates
+{
+    /**
+     * We won't create duplicates
+     */
+    private Duplicates()
+    {
+        //static methods only
+    }
+
+    public static void main(final String[] args) throws Exception
+    {
+        final File directory = new File(args.length > 0 ? args[0] : "assets/binary");
+        final boolean symmetry = !(args.length > 1 && args[1].equals("exact"));
+
+        final List<Pack> packs = new ArrayList<Pack>();
+        final List<String> names = new ArrayList<String>();
+
+        for (Assets.TextKey key : Assets.TextKey.values())
+        {
+            final Pack pack = Pack.open(new File(directory, new File(Assets.getBinaryFile(key)).getName()));
+
+            if (pack == null)
+                throw new Exception("Level pack is missing " + key);
+
+            packs.add(pack);
+            names.add(key.getDesc());
+        }
+
+        final long time = System.nanoTime();
+        final Map<Long, List<String>> duplicates = find(packs, names, symmetry);
+        final double elapsed = (System.nanoTime() - time) / 1000000.0;
+
+        int levels = 0;
+
+        for (List<String> descriptions : duplicates.values())
+        {
+            System.out.println(descriptions);
+            levels += descriptions.size() - 1;
+        }
+
+        System.out.println("Groups " + duplicates.size() + ", duplicate levels " + levels + ", time (ms) " + elapsed);
+    }
+
+    /**
+     * Find the duplicate levels
+     * @param packs The level packs to check
+     * @param names The name of each level pack
+     * @param symmetry Are rotated and mirrored levels the same
+     * @return The description of the levels with the same canonical hash, only where there is more than one.<br>
+     * Levels without a player (e.g. a title line read as a level) are skipped
+     */
+    public static Map<Long, List<String>> find(final List<Pack> packs, final List<String> names, final boolean symmetry)
+    {
+        final Map<Long, List<String>> groups = new LinkedHashMap<Long, List<String>>();
+
+        for (int i = 0; i < packs.size(); i++)
+        {
+            for (LevelInfo tracker : packs.get(i).getTrackers(names.get(i)))
+            {
+                final Level level = new Level(tracker);
+                packs.get(i).load(level, tracker);
+
+                final LevelHash canonical = LevelHash.create(level, symmetry);
+
+                //a level without a player can't be played, so it isn't a duplicate
+                if (canonical == null)
+                    continue;
+
+                final Long hash = canonical.getHash();
+                List<String> descriptions = groups.get(hash);
+
+                if (descriptions == null)
+                {
+                    descriptions = new ArrayList<String>(1);
+                    groups.put(hash, descriptions);
+                }
+
+                descriptions.add(tracker.getLevelDescription());
+            }
+        }
+
+        //only keep the levels that have a duplicate
+        for (Iterator<List<String>> iterator = groups.values().iterator(); iterator.hasNext(); )
+        {
+            if (iterator.next().size() < 2)
+                iterator.remove();
+        }
+
+        return groups;
+    }
+}
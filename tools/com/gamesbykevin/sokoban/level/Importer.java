@@ -0,0 +1,457 @@
+package com.gamesbykevin.sokoban.level;
+
+import com.gamesbykevin.sokoban.thread.MainThread;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Import an external collection of levels to a binary level pack.<br>
+ * The collection is read one line at a time and each level is written as soon as it is complete,<br>
+ * so only the level being read is kept in memory no matter how many levels are in the collection.<br>
+ * XSB and SOK files have the levels as text with the title and metadata (Title:, Author:, Comment:) before or after each level.<br>
+ * SLC files are xml with each row of a level in a L element, the title is the Id of the level.<br>
+ * This is run by PackBuilder when building and not by the game.
+ * @author GOD
+ */
+public final class Importer
+{
+    /**
+     * The different formats of a collection
+     */
+    public enum Format
+    {
+        XSB, SLC
+    }
+
+    /**
+     * The file extension of the xml collections
+     */
+    private static final String EXTENSION_SLC = ".slc";
+
+    /**
+     * The most rows or columns a level can have, anything larger is skipped
+     */
+    public static final int SIZE_MAX = 255;
+
+    /**
+     * Characters some collections use for the floor instead of a space
+     */
+    private static final char FLOOR_DASH = '-', FLOOR_UNDERSCORE = '_';
+
+    /**
+     * The character that starts a comment line
+     */
+    private static final char COMMENT = ';';
+
+    //where each level is written
+    private final PackWriter writer;
+
+    //the rows of the level being read
+    private final List<String> rows;
+
+    //the number of columns of the level being read
+    private int cols = 0;
+
+    //the metadata of the level being read
+    private String title, author, comment;
+
+    //the last line of text before a level, used as the title if there isn't one
+    private String heading;
+
+    //the author of the whole collection
+    private String collectionAuthor;
+
+    //has the level ended, the metadata after the level still belongs to it
+    private boolean pending = false;
+
+    //are we reading the lines of a comment
+    private boolean inComment = false;
+
+    //was the level too large to store
+    private boolean tooLarge = false;
+
+    //the number of levels that are not valid
+    private int skipped = 0;
+
+    /**
+     * Create the importer
+     * @param writer Where each level is written
+     */
+    private Importer(final PackWriter writer)
+    {
+        this.writer = writer;
+        this.rows = new ArrayList<String>();
+    }
+
+    /**
+     * Get the format of the collection
+     * @param name The file name of the collection
+     * @return The format based on the file extension, XSB if not known
+     */
+    public static Format getFormat(final String name)
+    {
+        return name.toLowerCase(Locale.US).endsWith(EXTENSION_SLC) ? Format.SLC : Format.XSB;
+    }
+
+    /**
+     * Read the collection and write the binary level pack
+     * @param input The collection
+     * @param format The format of the collection
+     * @param output Where the binary level pack is written
+     * @param directory Where temporary files can be created
+     * @return The number of levels imported
+     * @throws Exception If the collection could not be imported
+     */
+    public static int read(final InputStream input, final Format format, final OutputStream output, final File directory) throws Exception
+    {
+        final PackWriter writer = new PackWriter(directory);
+
+        try
+        {
+            final Importer importer = new Importer(writer);
+            final BufferedReader reader = new BufferedReader(new InputStreamReader(input, "UTF-8"));
+
+            for (String line = reader.readLine(); line != null; line = reader.readLine())
+            {
+                switch (format)
+                {
+                    case SLC:
+                        importer.readSlc(line);
+                        break;
+
+                    default:
+                        importer.readXsb(line);
+                        break;
+                }
+            }
+
+            //the last level is complete
+            importer.flush();
+
+            if (MainThread.DEBUG && importer.skipped > 0)
+                System.out.println("Levels skipped " + importer.skipped);
+
+            writer.write(output);
+            return writer.getTotal();
+        }
+        finally
+        {
+            writer.close();
+        }
+    }
+
+    /**
+     * Read a line of a XSB or SOK collection
+     * @param line The line of text
+     */
+    private void readXsb(final String line)
+    {
+        final String text = trimEnd(line);
+
+        //every line until the end of the comment is part of it
+        if (inComment)
+        {
+            if (text.toLowerCase(Locale.US).startsWith("comment-end"))
+            {
+                inComment = false;
+            }
+            else
+            {
+                comment = append(comment, text);
+            }
+
+            return;
+        }
+
+        if (isRow(text))
+        {
+            //the previous level is complete when the next one starts
+            if (pending)
+                flush();
+
+            //the line before the level is the title, if there isn't one
+            if (rows.isEmpty() && title == null)
+                title = heading;
+
+            heading = null;
+            addRow(text);
+            return;
+        }
+
+        //any other line means the level has ended
+        if (!rows.isEmpty())
+            pending = true;
+
+        if (text.length() == 0)
+            return;
+
+        if (text.charAt(0) == COMMENT)
+        {
+            final String value = text.substring(1).trim();
+
+            //the first comment after a level is the title, if there isn't one
+            if (pending && title == null)
+            {
+                title = value;
+            }
+            else if (pending)
+            {
+                comment = append(comment, value);
+            }
+
+            return;
+        }
+
+        //check for metadata
+        final int colon = text.indexOf(':');
+        final String key = (colon > 0) ? text.substring(0, colon).trim().toLowerCase(Locale.US) : "";
+        final String value = (colon > 0) ? text.substring(colon + 1).trim() : "";
+
+        if (key.equals("title"))
+        {
+            title = value;
+        }
+        else if (key.equals("author"))
+        {
+            author = value;
+        }
+        else if (key.equals("comment"))
+        {
+            //the comment is on the following lines if there isn't one here
+            if (value.length() == 0)
+            {
+                inComment = true;
+            }
+            else
+            {
+                comment = append(comment, value);
+            }
+        }
+        else
+        {
+            //this could be the title of the next level
+            heading = text.trim();
+        }
+    }
+
+    /**
+     * Read a line of a SLC collection.<br>
+     * The elements are checked one line at a time, so the whole document is never in memory
+     * @param line The line of text
+     */
+    private void readSlc(final String line)
+    {
+        int position = line.indexOf('<');
+
+        while (position >= 0)
+        {
+            final int end = line.indexOf('>', position);
+
+            if (end < 0)
+                break;
+
+            final String tag = line.substring(position + 1, end);
+            int next = end + 1;
+
+            if (tag.startsWith("LevelCollection"))
+            {
+                collectionAuthor = getAttribute(tag, "Copyright");
+            }
+            else if (tag.equals("Level") || tag.startsWith("Level "))
+            {
+                //make sure the previous level is complete
+                flush();
+
+                title = getAttribute(tag, "Id");
+                author = getAttribute(tag, "Copyright");
+
+                if (author == null)
+                    author = collectionAuthor;
+            }
+            else if (tag.equals("/Level"))
+            {
+                flush();
+            }
+            else if (tag.equals("L"))
+            {
+                final int close = line.indexOf("</L>", next);
+                addRow(unescape((close >= 0) ? line.substring(next, close) : line.substring(next)));
+                next = (close >= 0) ? close + 4 : line.length();
+            }
+
+            position = line.indexOf('<', next);
+        }
+    }
+
+    /**
+     * Add a row to the level being read
+     * @param text The row of the level
+     */
+    private void addRow(final String text)
+    {
+        //only keep the rows we are able to store
+        if (rows.size() >= SIZE_MAX || text.length() > SIZE_MAX)
+        {
+            tooLarge = true;
+            return;
+        }
+
+        rows.add(text.replace(FLOOR_DASH, Level.KEY_FLOOR).replace(FLOOR_UNDERSCORE, Level.KEY_FLOOR));
+
+        if (text.length() > cols)
+            cols = text.length();
+    }
+
+    /**
+     * Write the level being read, if it is valid, then get ready for the next level
+     */
+    private void flush()
+    {
+        if (!rows.isEmpty())
+        {
+            if (!tooLarge && hasPlayer())
+            {
+                try
+                {
+                    writer.add(rows, LevelIndex.create(title, rows, 0, rows.size() - 1, cols), title, author, comment);
+                }
+                catch (Exception e)
+                {
+                    throw new RuntimeException(e);
+                }
+            }
+            else
+            {
+                skipped++;
+            }
+        }
+
+        rows.clear();
+        cols = 0;
+        title = null;
+        author = null;
+        comment = null;
+        pending = false;
+        tooLarge = false;
+    }
+
+    /**
+     * Does the level being read have a single player?
+     * @return true if there is exactly one player, false otherwise
+     */
+    private boolean hasPlayer()
+    {
+        int count = 0;
+
+        for (int i = 0; i < rows.size(); i++)
+        {
+            final String row = rows.get(i);
+
+            for (int col = 0; col < row.length(); col++)
+            {
+                if (row.charAt(col) == Level.KEY_PLAYER || row.charAt(col) == Level.KEY_PLAYER_ON_GOAL)
+                    count++;
+            }
+        }
+
+        return (count == 1);
+    }
+
+    /**
+     * Is the text a row of a level?
+     * @param text The line of text, without the trailing spaces
+     * @return true if the line has a wall and only level characters, false otherwise
+     */
+    private static boolean isRow(final String text)
+    {
+        if (text.indexOf(Level.KEY_WALL) < 0)
+            return false;
+
+        for (int i = 0; i < text.length(); i++)
+        {
+            final char character = text.charAt(i);
+
+            if (character != FLOOR_DASH && character != FLOOR_UNDERSCORE && Pack.getCode(character) == 0)
+                return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Remove the trailing spaces
+     * @param text The line of text
+     * @return The text without any trailing spaces
+     */
+    private static String trimEnd(final String text)
+    {
+        int length = text.length();
+
+        while (length > 0 && Character.isWhitespace(text.charAt(length - 1)))
+        {
+            length--;
+        }
+
+        return text.substring(0, length);
+    }
+
+    /**
+     * Add a line to the text value, the value never exceeds the length we are able to store
+     * @param value The current value, null if there isn't one
+     * @param text The line to add
+     * @return The new value
+     */
+    private static String append(final String value, final String text)
+    {
+        if (value == null)
+            return text;
+
+        if (value.length() >= PackWriter.METADATA_MAX)
+            return value;
+
+        return value + "\n" + text;
+    }
+
+    /**
+     * Get the value of the attribute
+     * @param tag The text of the element
+     * @param name The name of the attribute
+     * @return The value of the attribute, null if it doesn't exist
+     */
+    private static String getAttribute(final String tag, final String name)
+    {
+        final int start = tag.indexOf(name + "=");
+
+        if (start < 0 || start + name.length() + 1 >= tag.length())
+            return null;
+
+        //the value can be in single or double quotes
+        final char quote = tag.charAt(start + name.length() + 1);
+        final int end = tag.indexOf(quote, start + name.length() + 2);
+
+        if (end < 0)
+            return null;
+
+        return unescape(tag.substring(start + name.length() + 2, end));
+    }
+
+    /**
+     * Replace the xml entities with the characters
+     * @param text The text from the xml
+     * @return The text with the characters
+     */
+    private static String unescape(final String text)
+    {
+        if (text.indexOf('&') < 0)
+            return text;
+
+        return text.replace("&lt;", "<").replace("&gt;", ">").replace("&quot;", "\"").replace("&apos;", "'").replace("&amp;", "&");
+    }
+}
@@ -0,0 +1,269 @@
+package com.gamesbykevin.sokoban.level;
+
+import com.gamesbykevin.sokoban.assets.Assets;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Build the binary level packs with PackWriter, this is run when building and not by the game.<br>
+ * The bundled packs are created from the text files, the text files are ordered by file name the same as Assets.TextKey.<br>
+ * The metrics of each level are calculated in parallel, a level that is already in the existing pack (same hash) keeps its metrics.<br>
+ * The tools folder is not part of the Android build, compile it together with src and the android.jar on the classpath.<br>
+ * Usage: PackBuilder [text directory] [binary directory] [solved directory] e.g. PackBuilder assets/text assets/binary assets/solved<br>
+ * Usage: PackBuilder [collection file] [binary file] e.g. PackBuilder levels.sok levels.bin
+ * @author GOD
+ */
+public final class PackBuilder
+{
+    /**
+     * We won't create a builder
+     */
+    private PackBuilder()
+    {
+        //static methods only
+    }
+
+    public static void main(final String[] args) throws Exception
+    {
+        final File source = new File(args.length > 0 ? args[0] : "assets/text");
+        final File destination = new File(args.length > 1 ? args[1] : "assets/binary");
+        final File solved = new File(args.length > 2 ? args[2] : "assets/solved");
+
+        //a single file is an external collection we want to import
+        if (source.isFile())
+        {
+            final long time = System.nanoTime();
+            final InputStream input = new FileInputStream(source);
+            final OutputStream output = new BufferedOutputStream(new FileOutputStream(destination));
+
+            try
+            {
+                final int total = Importer.read(input, Importer.getFormat(source.getName()), output, destination.getAbsoluteFile().getParentFile());
+                System.out.println(source.getName() + " -> " + destination.getName() + ", levels " + total + ", binary bytes " + destination.length() + ", time (ms) " + ((System.nanoTime() - time) / 1000000.0));
+            }
+            finally
+            {
+                input.close();
+                output.close();
+            }
+
+            return;
+        }
+
+        //the text files are ordered by file name
+        final String[] names = source.list();
+        Arrays.sort(names);
+
+        if (names.length != Assets.TextKey.values().length)
+            throw new Exception("Expected " + Assets.TextKey.values().length + " text files, found " + names.length);
+
+        destination.mkdirs();
+
+        //measure the levels using every processor
+        final ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+
+        try
+        {
+            for (int index = 0; index < names.length; index++)
+            {
+                final long time = System.nanoTime();
+                final Assets.TextKey key = Assets.TextKey.values()[index];
+                final List<String> lines = read(new File(source, names[index]));
+                final File file = new File(destination, new File(Assets.getBinaryFile(key)).getName());
+
+                //the solutions have the same file name
+                final File solutions = new File(solved, names[index]);
+
+                final List<LevelInfo> trackers = measure(executor, LevelIndex.create(key, lines), lines, solutions.exists() ? read(solutions) : null, getMetrics(file));
+                final byte[] data = write(trackers, lines);
+
+                final FileOutputStream output = new FileOutputStream(file);
+
+                try
+                {
+                    output.write(data);
+                }
+                finally
+                {
+                    output.close();
+                }
+
+                System.out.println(names[index] + " -> " + key + ", text bytes " + new File(source, names[index]).length() + ", binary bytes " + data.length + ", time (ms) " + ((System.nanoTime() - time) / 1000000.0));
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Get the metrics of each level in the existing pack
+     * @param file The existing binary level pack
+     * @return The metrics of each level by the level hash, empty if the pack doesn't exist or is not valid
+     */
+    private static Map<Integer, Metrics> getMetrics(final File file)
+    {
+        final Map<Integer, Metrics> metrics = new HashMap<Integer, Metrics>();
+
+        //the pack won't exist the first time
+        final Pack pack = file.exists() ? Pack.open(file) : null;
+
+        if (pack != null)
+        {
+            for (LevelInfo tracker : pack.getTrackers(""))
+            {
+                if (tracker.getMetrics() != null)
+                    metrics.put(tracker.getHash(), tracker.getMetrics());
+            }
+        }
+
+        return metrics;
+    }
+
+    /**
+     * Measure each level, only the levels that have changed are measured again
+     * @param executor Used to measure the levels in parallel
+     * @param trackers The info of each level
+     * @param lines The lines of the text file containing the levels
+     * @param solutions The ai instructions for each playable level, null if there aren't any
+     * @param previous The metrics of the existing pack, by the level hash
+     * @return The info of each level with the metrics
+     * @throws Exception
+     */
+    private static List<LevelInfo> measure(final ExecutorService executor, final List<LevelInfo> trackers, final List<String> lines, final List<String> solutions, final Map<Integer, Metrics> previous) throws Exception
+    {
+        final List<Future<Metrics>> futures = new ArrayList<Future<Metrics>>(trackers.size());
+        int changed = 0;
+
+        //the solutions only list the playable levels, so a level without a player or blocks has no solution line
+        int solutionIndex = 0;
+
+        for (int index = 0; index < trackers.size(); index++)
+        {
+            final LevelInfo tracker = trackers.get(index);
+
+            final Level level = new Level(tracker);
+            level.load(lines, tracker.getLineStart(), tracker.getLineEnd());
+
+            String solution = null;
+
+            if (level.getStart() != null && !level.getBlocks().isEmpty())
+            {
+                //the instructions are always the last piece of data
+                if (solutions != null && solutionIndex < solutions.size())
+                {
+                    final String[] data = solutions.get(solutionIndex).trim().split(" ");
+                    solution = data[data.length - 1];
+                }
+
+                solutionIndex++;
+            }
+
+            //the level hasn't changed, keep the metrics
+            if (previous.containsKey(tracker.getHash()))
+            {
+                futures.add(null);
+                continue;
+            }
+
+            final String instructions = solution;
+
+            futures.add(executor.submit(new Callable<Metrics>()
+            {
+                @Override
+                public Metrics call() throws Exception
+                {
+                    return Metrics.create(level, instructions);
+                }
+            }));
+
+            changed++;
+        }
+
+        final List<LevelInfo> result = new ArrayList<LevelInfo>(trackers.size());
+
+        for (int index = 0; index < trackers.size(); index++)
+        {
+            final LevelInfo tracker = trackers.get(index);
+            final Metrics metrics = (futures.get(index) != null) ? futures.get(index).get() : previous.get(tracker.getHash());
+
+            result.add(new LevelInfo(tracker.getLineStart(), tracker.getLineEnd(), tracker.getCols(), tracker.getBlocks(), tracker.getHash(), tracker.getOffset(), tracker.getLevelDescription(), metrics));
+        }
+
+        System.out.println("Levels measured " + changed + ", unchanged " + (trackers.size() - changed));
+        return result;
+    }
+
+    /**
+     * Read the lines of the text file
+     * @param file The text file
+     * @return Each line in the file
+     * @throws Exception
+     */
+    private static List<String> read(final File file) throws Exception
+    {
+        final List<String> lines = new ArrayList<String>();
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), "UTF-8"));
+
+        try
+        {
+            for (String line = reader.readLine(); line != null; line = reader.readLine())
+            {
+                lines.add(line);
+            }
+        }
+        finally
+        {
+            reader.close();
+        }
+
+        return lines;
+    }
+
+    /**
+     * Create the binary level pack
+     * @param trackers The info of each level
+     * @param lines The lines of the text file containing the levels
+     * @return The binary data of the pack
+     * @throws Exception
+     */
+    private static byte[] write(final List<LevelInfo> trackers, final List<String> lines) throws Exception
+    {
+        final PackWriter writer = new PackWriter(new File(System.getProperty("java.io.tmpdir")));
+        final ByteArrayOutputStream data = new ByteArrayOutputStream();
+
+        try
+        {
+            for (LevelInfo tracker : trackers)
+            {
+                writer.add(lines, tracker, null, null, null);
+            }
+
+            writer.write(data);
+        }
+        finally
+        {
+            writer.close();
+        }
+
+        return data.toByteArray();
+    }
+}
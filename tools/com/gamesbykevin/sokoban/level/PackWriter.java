@@ -0,0 +1,256 @@
+package com.gamesbykevin.sokoban.level;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Create the binary level packs.<br>
+ * The levels are added one at a time and the runs are written to temporary files, so only the fixed size records stay in memory.<br>
+ * Used by PackBuilder and the Importer to create the level packs when building, this is not run by the game
+ * @author GOD
+ */
+public final class PackWriter
+{
+    /**
+     * The longest text value we store in the metadata
+     */
+    public static final int METADATA_MAX = 255;
+
+    //the record of each level (offset, cols, rows, blocks, hash, metrics)
+    private final ByteArrayOutputStream records;
+
+    //the temporary file containing the runs of each level
+    private final File levelsFile;
+
+    //the temporary file containing the metadata of each level
+    private final File metadataFile;
+
+    //where the runs and metadata are written
+    private final DataOutputStream levels, metadata;
+
+    //the number of levels added
+    private int total = 0;
+
+    //does any level have metadata
+    private boolean hasMetadata = false;
+
+    /**
+     * Create a new writer
+     * @param directory Where the temporary files are created
+     * @throws IOException If the temporary files could not be created
+     */
+    public PackWriter(final File directory) throws IOException
+    {
+        this.records = new ByteArrayOutputStream();
+        this.levelsFile = File.createTempFile("levels", ".tmp", directory);
+        this.metadataFile = File.createTempFile("metadata", ".tmp", directory);
+        this.levels = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(levelsFile)));
+        this.metadata = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(metadataFile)));
+    }
+
+    /**
+     * Add a level to the pack
+     * @param lines The lines containing the level
+     * @param tracker The info of the level (lines, columns, blocks, hash, metrics)
+     * @param title The title of the level, null if there isn't one
+     * @param author The author of the level, null if there isn't one
+     * @param comment The comment of the level, null if there isn't one
+     * @throws IOException If the level could not be written
+     */
+    public void add(final List<String> lines, final LevelInfo tracker, final String title, final String author, final String comment) throws IOException
+    {
+        //store the record of the level, the offset is relative to the start of the levels
+        final DataOutputStream out = new DataOutputStream(records);
+        out.writeInt(levels.size());
+        out.writeShort(tracker.getCols());
+        out.writeShort(tracker.getRows());
+        out.writeShort(tracker.getBlocks());
+        out.writeInt(tracker.getHash());
+
+        //the floor is negative if the level hasn't been measured
+        final Metrics metrics = tracker.getMetrics();
+        out.writeShort((metrics != null) ? metrics.getFloor() : -1);
+        out.writeShort((metrics != null) ? metrics.getDead() : -1);
+        out.writeShort((metrics != null) ? metrics.getPushes() : -1);
+        out.writeInt((metrics != null) ? metrics.getNodes() : -1);
+        out.writeByte((metrics != null && metrics.isOptimal()) ? 1 : 0);
+
+        for (int row = 0; row < tracker.getRows(); row++)
+        {
+            writeRow(levels, lines.get(tracker.getLineStart() + row), tracker.getCols());
+        }
+
+        //store the metadata
+        writeValue(metadata, title);
+        writeValue(metadata, author);
+        writeValue(metadata, comment);
+
+        if (title != null || author != null || comment != null)
+            this.hasMetadata = true;
+
+        this.total++;
+    }
+
+    /**
+     * Get the total
+     * @return The number of levels added
+     */
+    public int getTotal()
+    {
+        return this.total;
+    }
+
+    /**
+     * Write the binary level pack, once all the levels are added
+     * @param output Where the pack is written
+     * @throws IOException If the pack could not be written
+     */
+    public void write(final OutputStream output) throws IOException
+    {
+        levels.flush();
+        metadata.flush();
+
+        //the levels are after the header and records
+        final int start = Pack.HEADER_SIZE + (getTotal() * Pack.RECORD_SIZE);
+
+        final DataOutputStream out = new DataOutputStream(output);
+        out.writeInt(Pack.MAGIC);
+        out.writeInt(getTotal());
+
+        //the metadata is after the levels, only if there is any
+        out.writeInt(hasMetadata ? start + levels.size() : 0);
+
+        //update each offset now that we know where the levels start
+        final byte[] data = records.toByteArray();
+
+        for (int index = 0; index < getTotal(); index++)
+        {
+            final int position = index * Pack.RECORD_SIZE;
+            out.writeInt(start + readInt(data, position));
+            out.write(data, position + 4, Pack.RECORD_SIZE - 4);
+        }
+
+        copy(levelsFile, out);
+
+        if (hasMetadata)
+            copy(metadataFile, out);
+
+        out.flush();
+    }
+
+    /**
+     * Close the writer and remove the temporary files
+     */
+    public void close()
+    {
+        try
+        {
+            levels.close();
+            metadata.close();
+        }
+        catch (IOException e)
+        {
+            e.printStackTrace();
+        }
+
+        levelsFile.delete();
+        metadataFile.delete();
+    }
+
+    /**
+     * Read an int from the bytes
+     * @param data The bytes
+     * @param position Where the int starts
+     * @return The int value
+     */
+    private static int readInt(final byte[] data, final int position)
+    {
+        return ((data[position] & 0xFF) << 24) | ((data[position + 1] & 0xFF) << 16) | ((data[position + 2] & 0xFF) << 8) | (data[position + 3] & 0xFF);
+    }
+
+    /**
+     * Copy the contents of the file
+     * @param file The file to copy
+     * @param out Where the contents are written
+     * @throws IOException
+     */
+    private static void copy(final File file, final OutputStream out) throws IOException
+    {
+        final InputStream input = new BufferedInputStream(new FileInputStream(file));
+
+        try
+        {
+            final byte[] buffer = new byte[8192];
+
+            for (int length = input.read(buffer); length > 0; length = input.read(buffer))
+            {
+                out.write(buffer, 0, length);
+            }
+        }
+        finally
+        {
+            input.close();
+        }
+    }
+
+    /**
+     * Write a text value of the metadata, the length (2 bytes) followed by the UTF-8 bytes
+     * @param out Where the value is written
+     * @param value The text value, null if there isn't one
+     * @throws IOException
+     */
+    private static void writeValue(final DataOutputStream out, final String value) throws IOException
+    {
+        if (value == null)
+        {
+            out.writeShort(0);
+            return;
+        }
+
+        //limit the length, so the bytes always fit
+        final byte[] data = ((value.length() > METADATA_MAX) ? value.substring(0, METADATA_MAX) : value).getBytes("UTF-8");
+        out.writeShort(data.length);
+        out.write(data);
+    }
+
+    /**
+     * Write the runs of a single row, every column is included
+     * @param out Where the runs are written
+     * @param line The line of text for the row
+     * @param cols The number of columns in the level
+     * @throws IOException
+     */
+    private static void writeRow(final OutputStream out, final String line, final int cols) throws IOException
+    {
+        for (int col = 0; col < cols; )
+        {
+            //the code of the character, columns past the end of the line are not part of the level
+            final int code = (col < line.length()) ? Pack.getCode(line.charAt(col)) : 0;
+
+            //count how many times the code repeats
+            int length = 1;
+
+            while (length < Pack.LENGTH_MAX && col + length < cols)
+            {
+                final int next = (col + length < line.length()) ? Pack.getCode(line.charAt(col + length)) : 0;
+
+                if (next != code)
+                    break;
+
+                length++;
+            }
+
+            out.write(Pack.getRun(col < line.length() ? line.charAt(col) : 0, length));
+            col += length;
+        }
+    }
+}